@@ -2,6 +2,7 @@ package de.polocloud.api;
 
 import de.polocloud.api.event.SimpleEventHandler;
 import de.polocloud.api.event.EventHandler;
+import de.polocloud.api.event.player.CloudPlayerUpdateEvent;
 import de.polocloud.api.groups.GroupManager;
 import de.polocloud.api.logger.Logger;
 import de.polocloud.api.network.packet.CustomPacket;
@@ -11,11 +12,14 @@ import de.polocloud.api.network.packet.ResponsePacket;
 import de.polocloud.api.network.packet.group.ServiceGroupCacheUpdatePacket;
 import de.polocloud.api.network.packet.group.ServiceGroupExecutePacket;
 import de.polocloud.api.network.packet.group.ServiceGroupUpdatePacket;
+import de.polocloud.api.network.packet.init.CacheDeltaPacket;
 import de.polocloud.api.network.packet.init.CacheInitPacket;
+import de.polocloud.api.network.packet.init.CacheSyncRequestPacket;
 import de.polocloud.api.network.packet.player.*;
 import de.polocloud.api.network.packet.service.*;
 import de.polocloud.api.player.PlayerManager;
 import de.polocloud.api.service.ServiceManager;
+import de.polocloud.network.packet.EnumTable;
 import de.polocloud.network.packet.PacketHandler;
 import de.polocloud.network.packet.auth.NodeHandshakeAuthenticationPacket;
 import lombok.Getter;
@@ -43,7 +47,10 @@ public abstract class CloudAPI {
             CacheInitPacket.class, CloudPlayerDisconnectPacket.class, CloudPlayerKickPacket.class,
             CloudPlayerLoginPacket.class, CloudPlayerMessagePacket.class, CloudPlayerSendServicePacket.class,
             CloudPlayerUpdatePacket.class, ServiceAddPacket.class, ServiceRemovePacket.class,
-            ServiceRequestShutdownPacket.class, ServiceUpdatePacket.class, ServiceCopyRequestPacket.class);
+            ServiceRequestShutdownPacket.class, ServiceUpdatePacket.class, ServiceCopyRequestPacket.class,
+            CacheDeltaPacket.class, CacheSyncRequestPacket.class);
+        EnumTable.register(QueryPacket.QueryState.class, ServiceGroupExecutePacket.Executor.class, CloudPlayerUpdateEvent.UpdateReason.class,
+            CacheInitPacket.Stage.class);
         this.eventHandler = new SimpleEventHandler();
     }
 
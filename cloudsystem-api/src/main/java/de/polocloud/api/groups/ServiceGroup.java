@@ -163,9 +163,9 @@ public interface ServiceGroup {
      */
     default void write(@NotNull NetworkBuf networkBuf) {
         networkBuf
-            .writeString(this.getName())
-            .writeString(this.getTemplate())
-            .writeString(this.getNode())
+            .writeIdentifier(this.getName())
+            .writeIdentifier(this.getTemplate())
+            .writeIdentifier(this.getNode())
             .writeString(this.getMotd())
             .writeInt(this.getMaxMemory())
             .writeInt(this.getDefaultMaxPlayers())
@@ -175,7 +175,7 @@ public interface ServiceGroup {
             .writeBoolean(this.isFallbackGroup())
             .writeBoolean(this.isMaintenance())
             .writeBoolean(this.isAutoUpdating())
-            .writeString(this.getGameServerVersion().getName());
+            .writeIdentifier(this.getGameServerVersion().getName());
     }
 
     /**
@@ -183,9 +183,9 @@ public interface ServiceGroup {
      */
     static ServiceGroup read(@NotNull NetworkBuf networkBuf) {
         return new SimpleServiceGroup(
-            networkBuf.readString(),
-            networkBuf.readString(),
-            networkBuf.readString(),
+            networkBuf.readIdentifier(),
+            networkBuf.readIdentifier(),
+            networkBuf.readIdentifier(),
             networkBuf.readString(),
             networkBuf.readInt(),
             networkBuf.readInt(),
@@ -195,7 +195,7 @@ public interface ServiceGroup {
             networkBuf.readBoolean(),
             networkBuf.readBoolean(),
             networkBuf.readBoolean(),
-            GameServerVersion.getVersionByName(networkBuf.readString()));
+            GameServerVersion.getVersionByName(networkBuf.readIdentifier()));
     }
 
 }
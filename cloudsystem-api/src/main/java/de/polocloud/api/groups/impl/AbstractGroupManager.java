@@ -38,7 +38,8 @@ public abstract class AbstractGroupManager implements GroupManager {
 
         CloudAPI.getInstance().getPacketHandler().registerPacketListener(ServiceGroupExecutePacket.class, (channelHandlerContext, packet) -> {
             if (packet.getExecutorType().equals(ServiceGroupExecutePacket.Executor.CREATE)) {
-                addServiceGroup(packet.getGroup());
+                // a snapshot may already contain the group
+                if (this.getServiceGroupByNameOrNull(packet.getGroup().getName()) == null) addServiceGroup(packet.getGroup());
             } else {
                 this.getAllCachedServiceGroups().remove(packet.getGroup());
             }
@@ -8,7 +8,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ThreadLocalRandom;
 
 @Getter
 @AllArgsConstructor
@@ -17,9 +17,27 @@ public class QueryPacket implements Packet {
 
     private Packet packet;
     private QueryState state;
+    // identifies the message on every node, a node handles and forwards it only once
+    private long messageId;
+    // how often the message may still be forwarded from node to node
+    private int hops;
+
+    public QueryPacket(final Packet packet, final QueryState state) {
+        this(packet, state, ThreadLocalRandom.current().nextLong(), 0);
+    }
+
+    /**
+     * @param hops the remaining hops of the forwarded message
+     * @return the same message sent on by a node
+     */
+    public QueryPacket forward(final int hops) {
+        return new QueryPacket(this.packet, QueryState.SECOND_RESPONSE, this.messageId, hops);
+    }
 
     public enum QueryState {
+        // sent by a service, its node decides how far the message travels
         FIRST_RESPONSE,
+        // sent by a node
         SECOND_RESPONSE
     }
 
@@ -30,25 +48,21 @@ public class QueryPacket implements Packet {
         this.packet.write(byteBuf);
 
         // write state for indexing
-        byteBuf.writeInt(this.state.ordinal());
+        byteBuf.writeEnum(this.state);
+        byteBuf.writeLong(this.messageId);
+        byteBuf.writeVarInt(this.hops);
     }
 
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
         final var packetId = byteBuf.readInt();
 
-        this.initPacket(byteBuf, CloudAPI.getInstance().getPacketHandler().getPacketClass(packetId));
-    }
-
-    private void initPacket(NetworkBuf byteBuf, Class<? extends Packet> it){
-        try {
-            this.packet = it.getConstructor().newInstance();
-            this.packet.read(byteBuf);
+        this.packet = CloudAPI.getInstance().getPacketHandler().createPacket(packetId);
+        this.packet.read(byteBuf);
 
-            this.state = QueryState.values()[byteBuf.readInt()];
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            e.printStackTrace();
-        }
+        this.state = byteBuf.readEnum();
+        this.messageId = byteBuf.readLong();
+        this.hops = byteBuf.readVarInt();
     }
 
 }
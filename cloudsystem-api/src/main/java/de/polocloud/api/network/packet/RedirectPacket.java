@@ -8,7 +8,6 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 
-import java.lang.reflect.InvocationTargetException;
 
 @AllArgsConstructor
 @NoArgsConstructor
@@ -21,7 +20,7 @@ public class RedirectPacket implements Packet {
     @Override
     public void write(@NotNull NetworkBuf byteBuf) {
         byteBuf
-            .writeString(this.client)
+            .writeIdentifier(this.client)
             .writeInt(CloudAPI.getInstance().getPacketHandler().getPacketId(this.packet.getClass()));
         this.packet.write(byteBuf);
     }
@@ -29,17 +28,9 @@ public class RedirectPacket implements Packet {
 
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
-        this.client = byteBuf.readString();
-        this.initPacket(byteBuf, CloudAPI.getInstance().getPacketHandler().getPacketClass(byteBuf.readInt()));
-    }
-
-    public void initPacket(NetworkBuf byteBuf, Class<? extends Packet> it) {
-        try {
-            this.packet = it.getConstructor().newInstance();
-            this.packet.read(byteBuf);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            e.printStackTrace();
-        }
+        this.client = byteBuf.readIdentifier();
+        this.packet = CloudAPI.getInstance().getPacketHandler().createPacket(byteBuf.readInt());
+        this.packet.read(byteBuf);
     }
 
 }
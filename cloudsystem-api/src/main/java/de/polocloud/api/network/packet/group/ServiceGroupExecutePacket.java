@@ -26,13 +26,13 @@ public class ServiceGroupExecutePacket implements Packet {
     @Override
     public void write(@NotNull NetworkBuf byteBuf) {
         this.group.write(byteBuf);
-        byteBuf.writeInt(executorType.ordinal());
+        byteBuf.writeEnum(this.executorType);
     }
 
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
         this.group = ServiceGroup.read(byteBuf);
-        this.executorType = Executor.values()[byteBuf.readInt()];
+        this.executorType = byteBuf.readEnum();
     }
 
 }
@@ -2,15 +2,17 @@ package de.polocloud.api.network.packet.group;
 
 import de.polocloud.api.groups.ServiceGroup;
 import de.polocloud.api.version.GameServerVersion;
-import de.polocloud.network.packet.Packet;
+import de.polocloud.network.packet.DroppablePacket;
 import de.polocloud.network.packet.NetworkBuf;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+
 @Getter
 @NoArgsConstructor
-public final class ServiceGroupUpdatePacket implements Packet {
+public final class ServiceGroupUpdatePacket implements DroppablePacket {
 
     private String name;
     private String node;
@@ -40,15 +42,15 @@ public final class ServiceGroupUpdatePacket implements Packet {
 
     @Override
     public void read(final @NotNull NetworkBuf byteBuf) {
-        this.name = byteBuf.readString();
-        this.node = byteBuf.readString();
-        this.template = byteBuf.readString();
+        this.name = byteBuf.readIdentifier();
+        this.node = byteBuf.readIdentifier();
+        this.template = byteBuf.readIdentifier();
         this.motd = byteBuf.readString();
         this.memory = byteBuf.readInt();
         this.minOnlineService = byteBuf.readInt();
         this.maxOnlineService = byteBuf.readInt();
         this.defaultMaxPlayers = byteBuf.readInt();
-        this.gameServerVersion = GameServerVersion.getVersionByName(byteBuf.readString());
+        this.gameServerVersion = GameServerVersion.getVersionByName(byteBuf.readIdentifier());
         this.fallback = byteBuf.readBoolean();
         this.maintenance = byteBuf.readBoolean();
     }
@@ -56,17 +58,22 @@ public final class ServiceGroupUpdatePacket implements Packet {
     @Override
     public void write(final @NotNull NetworkBuf byteBuf) {
         byteBuf
-            .writeString(this.name)
-            .writeString(this.node)
-            .writeString(this.template)
+            .writeIdentifier(this.name)
+            .writeIdentifier(this.node)
+            .writeIdentifier(this.template)
             .writeString(this.motd)
             .writeInt(this.memory)
             .writeInt(this.minOnlineService)
             .writeInt(this.maxOnlineService)
             .writeInt(this.defaultMaxPlayers)
-            .writeString(this.gameServerVersion.getName())
+            .writeIdentifier(this.gameServerVersion.getName())
             .writeBoolean(this.fallback)
             .writeBoolean(this.maintenance);
     }
 
+    @Override
+    public Object getCoalescingKey() {
+        return Map.entry(ServiceGroupUpdatePacket.class, this.name);
+    }
+
 }
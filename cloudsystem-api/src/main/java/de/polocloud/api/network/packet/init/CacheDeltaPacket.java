@@ -0,0 +1,59 @@
+package de.polocloud.api.network.packet.init;
+
+import de.polocloud.api.CloudAPI;
+import de.polocloud.network.packet.DroppablePacket;
+import de.polocloud.network.packet.NetworkBuf;
+import de.polocloud.network.packet.Packet;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a single cache mutation with its sequence number, a packet without mutation only advances the sequence
+ * a dropped delta leaves a gap in the sequence, which makes the service synchronize again
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheDeltaPacket implements DroppablePacket {
+
+    private long sequence;
+    private @Nullable Packet packet;
+
+    @Override
+    public void write(@NotNull NetworkBuf byteBuf) {
+        byteBuf.writeLong(this.sequence);
+        if (this.packet == null) {
+            byteBuf.writeInt(-1);
+        } else {
+            byteBuf.writeInt(CloudAPI.getInstance().getPacketHandler().getPacketId(this.packet.getClass()));
+            this.packet.write(byteBuf);
+        }
+    }
+
+    @Override
+    public void read(@NotNull NetworkBuf byteBuf) {
+        this.sequence = byteBuf.readLong();
+        this.packet = CloudAPI.getInstance().getPacketHandler().createPacket(byteBuf.readInt());
+        if (this.packet != null) this.packet.read(byteBuf);
+    }
+
+    @Override
+    public boolean isDroppable() {
+        return this.packet instanceof DroppablePacket droppablePacket && droppablePacket.isDroppable();
+    }
+
+    @Override
+    public @Nullable Object getCoalescingKey() {
+        return this.packet instanceof DroppablePacket droppablePacket ? droppablePacket.getCoalescingKey() : null;
+    }
+
+    @Override
+    public @Nullable Packet getCoalescedReplacement() {
+        // keeps the sequence without gap, the newer delta carries the state
+        return new CacheDeltaPacket(this.sequence, null);
+    }
+
+}
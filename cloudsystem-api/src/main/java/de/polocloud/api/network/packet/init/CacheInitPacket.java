@@ -8,59 +8,122 @@ import de.polocloud.api.player.impl.AbstractPlayerManager;
 import de.polocloud.api.service.CloudService;
 import de.polocloud.network.packet.NetworkBuf;
 import de.polocloud.network.packet.Packet;
-import lombok.AllArgsConstructor;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Supplier;
 
-@AllArgsConstructor
+/**
+ * a bounded chunk of a cache snapshot, the node sends the groups, then the services and then the players,
+ * each stage starts with a first and ends with a last chunk
+ */
+@Getter
 @NoArgsConstructor
 public class CacheInitPacket implements Packet {
 
-    private List<ServiceGroup> groups;
-    private List<CloudService> services;
-    private List<CloudPlayer> players;
+    public static final int CHUNK_SIZE = 256;
+
+    // the node generated epoch and the sequence of the last mutation contained in this snapshot
+    private long epoch;
+    private long sequence;
+    private Stage stage;
+    private boolean first;
+    private boolean last;
+    private List<?> entries;
+
+    // entries which depend on the already applied stages are created while applying
+    private List<Supplier<?>> deferredEntries;
+
+    public enum Stage {
+        GROUPS,
+        SERVICES,
+        PLAYERS
+    }
+
+    public CacheInitPacket(final long epoch, final long sequence, final @NotNull Stage stage, final boolean first,
+                           final boolean last, final @NotNull List<?> entries) {
+        this.epoch = epoch;
+        this.sequence = sequence;
+        this.stage = stage;
+        this.first = first;
+        this.last = last;
+        this.entries = entries;
+    }
 
     @Override
     public void write(@NotNull NetworkBuf byteBuf) {
-        byteBuf.writeInt(this.groups.size());
-        this.groups.forEach(group -> group.write(byteBuf));
-        byteBuf.writeInt(this.services.size());
-        this.services.forEach(service -> service.write(byteBuf));
-        byteBuf.writeInt(this.players.size());
-        this.players.forEach(player -> player.write(byteBuf));
+        byteBuf
+            .writeLong(this.epoch)
+            .writeLong(this.sequence)
+            .writeEnum(this.stage)
+            .writeBoolean(this.first)
+            .writeBoolean(this.last)
+            .writeVarInt(this.entries.size());
+        for (final var entry : this.entries) {
+            switch (this.stage) {
+                case GROUPS -> ((ServiceGroup) entry).write(byteBuf);
+                case SERVICES -> ((CloudService) entry).write(byteBuf);
+                case PLAYERS -> ((CloudPlayer) entry).write(byteBuf);
+            }
+        }
     }
 
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
-        this.groups = new ArrayList<>();
-        final var groupSize = byteBuf.readInt();
-        for (var i = 0; i < groupSize; i++) {
-            this.groups.add(ServiceGroup.read(byteBuf));
-        }
-
-        ((AbstractGroupManager) CloudAPI.getInstance().getGroupManager()).setAllCachedServiceGroups(this.groups);
+        this.epoch = byteBuf.readLong();
+        this.sequence = byteBuf.readLong();
+        this.stage = byteBuf.readEnum();
+        this.first = byteBuf.readBoolean();
+        this.last = byteBuf.readBoolean();
 
-        this.services = new ArrayList<>();
-        final var serviceSize = byteBuf.readInt();
-        for (var i = 0; i < serviceSize; i++) {
-            this.services.add(CloudService.read(byteBuf));
+        // only decodes, the caches are changed by apply
+        final var size = byteBuf.readVarInt();
+        this.deferredEntries = new ArrayList<>(size);
+        for (var i = 0; i < size; i++) {
+            switch (this.stage) {
+                case GROUPS -> {
+                    final var group = ServiceGroup.read(byteBuf);
+                    this.deferredEntries.add(() -> group);
+                }
+                case SERVICES -> this.deferredEntries.add(CloudService.readDeferred(byteBuf));
+                case PLAYERS -> this.deferredEntries.add(CloudPlayer.readDeferred(byteBuf));
+            }
         }
+    }
 
-        CloudAPI.getInstance().getServiceManager().setAllCachedServices(this.services);
-
-        final var players = new ConcurrentHashMap<UUID, CloudPlayer>();
-        final var playerSize = byteBuf.readInt();
-        for (var i = 0; i < playerSize; i++) {
-            final var cloudPlayer = CloudPlayer.read(byteBuf);
-            players.put(cloudPlayer.getUniqueId(), cloudPlayer);
+    /**
+     * collects the entries of the chunk, the caches stay untouched until the last chunk of the stage
+     * replaces the cache of the stage at once, so readers never see a partial snapshot
+     * the chunks have to be applied in the order they were received
+     * @param staged the entries of the stage received so far, kept by the receiver between the chunks
+     */
+    @SuppressWarnings("unchecked")
+    public void apply(final @NotNull List<Object> staged) {
+        if (this.first) staged.clear();
+        // the services and players resolve their groups and services from the caches swapped by the stages before
+        staged.addAll(this.createEntries());
+        if (!this.last) return;
+        final var api = CloudAPI.getInstance();
+        switch (this.stage) {
+            case GROUPS -> ((AbstractGroupManager) api.getGroupManager())
+                .setAllCachedServiceGroups(new CopyOnWriteArrayList<>((List<ServiceGroup>) (List<?>) staged));
+            case SERVICES -> api.getServiceManager().setAllCachedServices((List<CloudService>) (List<?>) staged);
+            case PLAYERS -> ((AbstractPlayerManager) api.getPlayerManager()).setPlayers((List<CloudPlayer>) (List<?>) staged);
         }
+        staged.clear();
+    }
 
-        ((AbstractPlayerManager) CloudAPI.getInstance().getPlayerManager()).setPlayers(players);
+    @SuppressWarnings("unchecked")
+    private <T> List<T> createEntries() {
+        final var entries = new ArrayList<T>(this.deferredEntries.size());
+        for (final var entry : this.deferredEntries) {
+            entries.add((T) entry.get());
+        }
+        return entries;
     }
 
 }
@@ -0,0 +1,34 @@
+package de.polocloud.api.network.packet.init;
+
+import de.polocloud.network.packet.NetworkBuf;
+import de.polocloud.network.packet.Packet;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * requests the cache changes after the given sequence, the node answers with a snapshot if it can not replay them
+ */
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CacheSyncRequestPacket implements Packet {
+
+    private long epoch;
+    private long sequence;
+
+    @Override
+    public void write(@NotNull NetworkBuf byteBuf) {
+        byteBuf
+            .writeLong(this.epoch)
+            .writeLong(this.sequence);
+    }
+
+    @Override
+    public void read(@NotNull NetworkBuf byteBuf) {
+        this.epoch = byteBuf.readLong();
+        this.sequence = byteBuf.readLong();
+    }
+
+}
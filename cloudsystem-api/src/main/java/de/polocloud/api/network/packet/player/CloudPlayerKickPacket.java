@@ -22,14 +22,14 @@ public class CloudPlayerKickPacket implements Packet {
     public void write(@NotNull NetworkBuf byteBuf) {
         byteBuf
             .writeUUID(this.uuid)
-            .writeString(this.proxyService)
+            .writeIdentifier(this.proxyService)
             .writeString(this.reason);
     }
 
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
         this.uuid = byteBuf.readUUID();
-        this.proxyService = byteBuf.readString();
+        this.proxyService = byteBuf.readIdentifier();
         this.reason = byteBuf.readString();
     }
 
@@ -22,7 +22,7 @@ public class CloudPlayerLoginPacket implements Packet {
     public void read(@NotNull NetworkBuf byteBuf) {
         this.username = byteBuf.readString();
         this.uuid = byteBuf.readUUID();
-        this.proxyServer = byteBuf.readString();
+        this.proxyServer = byteBuf.readIdentifier();
     }
 
     @Override
@@ -30,7 +30,7 @@ public class CloudPlayerLoginPacket implements Packet {
         byteBuf
             .writeString(this.username)
             .writeUUID(this.uuid)
-            .writeString(this.proxyServer);
+            .writeIdentifier(this.proxyServer);
     }
 
 }
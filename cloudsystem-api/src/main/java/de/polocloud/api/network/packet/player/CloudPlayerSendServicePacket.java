@@ -20,13 +20,13 @@ public class CloudPlayerSendServicePacket implements Packet {
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
         this.uuid = byteBuf.readUUID();
-        this.service = byteBuf.readString();
+        this.service = byteBuf.readIdentifier();
     }
 
     @Override
     public void write(@NotNull NetworkBuf byteBuf) {
         byteBuf.writeUUID(this.uuid);
-        byteBuf.writeString(this.service);
+        byteBuf.writeIdentifier(this.service);
     }
 
 }
@@ -4,40 +4,48 @@ import de.polocloud.api.CloudAPI;
 import de.polocloud.api.event.player.CloudPlayerUpdateEvent;
 import de.polocloud.api.player.CloudPlayer;
 import de.polocloud.api.service.CloudService;
-import de.polocloud.network.packet.Packet;
 import de.polocloud.network.packet.NetworkBuf;
+import de.polocloud.network.packet.Packet;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.UUID;
 
+/**
+ * every update calls an event with its reason on the receiver, so it is never coalesced or dropped
+ */
 @Getter
 @NoArgsConstructor
 public class CloudPlayerUpdatePacket implements Packet {
 
     private UUID uuid;
-    private CloudService server;
+    private String serverName;
     private CloudPlayerUpdateEvent.UpdateReason updateReason;
 
     public CloudPlayerUpdatePacket(@NotNull CloudPlayer cloudPlayer, @NotNull CloudPlayerUpdateEvent.UpdateReason updateReason) {
         this.uuid = cloudPlayer.getUniqueId();
-        this.server = cloudPlayer.getServer();
+        this.serverName = cloudPlayer.getServer().getName();
         this.updateReason = updateReason;
     }
 
     @Override
     public void write(@NotNull NetworkBuf byteBuf) {
         byteBuf.writeUUID(this.uuid);
-        byteBuf.writeString(this.server.getName());
+        byteBuf.writeIdentifier(this.serverName);
         byteBuf.writeEnum(this.updateReason);
     }
 
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
         this.uuid = byteBuf.readUUID();
-        this.server = CloudAPI.getInstance().getServiceManager().getServiceByNameOrNull(byteBuf.readString());
+        this.serverName = byteBuf.readIdentifier();
         this.updateReason = byteBuf.readEnum();
     }
 
+    public CloudService getServer() {
+        // resolved when the packet is handled, the service may not be cached yet while decoding
+        return CloudAPI.getInstance().getServiceManager().getServiceByNameOrNull(this.serverName);
+    }
+
 }
@@ -3,17 +3,21 @@ package de.polocloud.api.network.packet.service;
 import de.polocloud.api.service.CloudService;
 import de.polocloud.network.packet.Packet;
 import de.polocloud.network.packet.NetworkBuf;
-import lombok.AllArgsConstructor;
-import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 
-@AllArgsConstructor
-@Getter
+import java.util.function.Supplier;
+
 @NoArgsConstructor
 public class ServiceAddPacket implements Packet {
 
     private CloudService service;
+    // the group of the service may not be cached yet while decoding
+    private Supplier<CloudService> serviceSupplier;
+
+    public ServiceAddPacket(final CloudService service) {
+        this.service = service;
+    }
 
     @Override
     public void write(@NotNull NetworkBuf byteBuf) {
@@ -22,7 +26,12 @@ public class ServiceAddPacket implements Packet {
 
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
-        this.service = CloudService.read(byteBuf);
+        this.serviceSupplier = CloudService.readDeferred(byteBuf);
+    }
+
+    public CloudService getService() {
+        if (this.service == null && this.serviceSupplier != null) this.service = this.serviceSupplier.get();
+        return this.service;
     }
 
 }
@@ -16,11 +16,11 @@ public class ServiceCopyRequestPacket implements Packet {
 
     @Override
     public void write(@NotNull NetworkBuf networkBuf) {
-        networkBuf.writeString(service);
+        networkBuf.writeIdentifier(service);
     }
 
     @Override
     public void read(@NotNull NetworkBuf networkBuf) {
-        this.service = networkBuf.readString();
+        this.service = networkBuf.readIdentifier();
     }
 }
@@ -16,12 +16,12 @@ public class ServiceRemovePacket implements Packet {
 
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
-        this.service = byteBuf.readString();
+        this.service = byteBuf.readIdentifier();
     }
 
     @Override
     public void write(@NotNull NetworkBuf byteBuf) {
-        byteBuf.writeString(this.service);
+        byteBuf.writeIdentifier(this.service);
     }
 
 }
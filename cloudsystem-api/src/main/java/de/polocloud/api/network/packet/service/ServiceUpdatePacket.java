@@ -1,15 +1,17 @@
 package de.polocloud.api.network.packet.service;
 
 import de.polocloud.api.service.CloudService;
+import de.polocloud.network.packet.DroppablePacket;
 import de.polocloud.network.packet.NetworkBuf;
-import de.polocloud.network.packet.Packet;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
+
 @NoArgsConstructor
 @Getter
-public class ServiceUpdatePacket implements Packet {
+public class ServiceUpdatePacket implements DroppablePacket {
 
     private String service;
     private String state;
@@ -27,18 +29,24 @@ public class ServiceUpdatePacket implements Packet {
     @Override
     public void write(@NotNull NetworkBuf byteBuf) {
         byteBuf
-            .writeString(this.service)
-            .writeString(this.state)
+            .writeIdentifier(this.service)
+            .writeIdentifier(this.state)
             .writeInt(this.maxPlayers)
             .writeString(this.motd);
     }
 
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
-        this.service = byteBuf.readString();
-        this.state = byteBuf.readString();
+        this.service = byteBuf.readIdentifier();
+        this.state = byteBuf.readIdentifier();
         this.maxPlayers = byteBuf.readInt();
         this.motd = byteBuf.readString();
     }
 
+    @Override
+    public Object getCoalescingKey() {
+        // carries the whole state of the service, only the latest update matters
+        return Map.entry(ServiceUpdatePacket.class, this.service);
+    }
+
 }
@@ -10,6 +10,7 @@ import de.polocloud.network.packet.NetworkBuf;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.UUID;
+import java.util.function.Supplier;
 
 public interface CloudPlayer {
 
@@ -104,19 +105,28 @@ public interface CloudPlayer {
         networkBuf
             .writeUUID(this.getUniqueId())
             .writeString(this.getUsername())
-            .writeString(this.getProxyServer().getName())
-            .writeString(this.getServer().getName());
+            .writeIdentifier(this.getProxyServer().getName())
+            .writeIdentifier(this.getServer().getName());
     }
 
     /**
      * reads a player from a network buf
      */
     static CloudPlayer read(@NotNull NetworkBuf networkBuf) {
-        return new SimpleCloudPlayer(
-            networkBuf.readUUID(),
-            networkBuf.readString(),
-            CloudAPI.getInstance().getServiceManager().getService(networkBuf.readString()).orElse(null),
-            CloudAPI.getInstance().getServiceManager().getService(networkBuf.readString()).orElse(null));
+        return readDeferred(networkBuf).get();
+    }
+
+    /**
+     * reads a player from a network buf, the services are resolved when the supplier is called
+     */
+    static Supplier<CloudPlayer> readDeferred(@NotNull NetworkBuf networkBuf) {
+        final var uniqueId = networkBuf.readUUID();
+        final var username = networkBuf.readString();
+        final var proxyServer = networkBuf.readIdentifier();
+        final var server = networkBuf.readIdentifier();
+        return () -> new SimpleCloudPlayer(uniqueId, username,
+            CloudAPI.getInstance().getServiceManager().getServiceByNameOrNull(proxyServer),
+            CloudAPI.getInstance().getServiceManager().getServiceByNameOrNull(server));
     }
 
 }
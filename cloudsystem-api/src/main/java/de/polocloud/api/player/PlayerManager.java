@@ -1,24 +1,35 @@
 package de.polocloud.api.player;
 
 import de.polocloud.api.event.player.CloudPlayerUpdateEvent;
+import de.polocloud.api.service.CloudService;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
 public interface PlayerManager {
 
     /**
-     * @return a list of all cloud players
+     * @return a view of all cloud players, it changes with the cache
      */
-    @NotNull List<CloudPlayer> getPlayers();
+    @NotNull Collection<CloudPlayer> getPlayers();
 
     /**
-     * @return a list of all cloud players on the service
+     * @return a view of all cloud players on the service, on a proxy the players connected through it
      */
-    @NotNull List<CloudPlayer> getAllServicePlayers();
+    @NotNull Collection<CloudPlayer> getAllServicePlayers();
+
+    /**
+     * @param service the service or proxy
+     * @return the players on the service
+     */
+    default @NotNull Collection<CloudPlayer> getPlayers(@NotNull CloudService service) {
+        return this.getPlayers().stream()
+            .filter(player -> service.equals(service.getGroup().getGameServerVersion().isProxy() ? player.getProxyServer() : player.getServer()))
+            .toList();
+    }
 
     /**
      * @param uniqueId the unique id to get the player
@@ -51,6 +62,14 @@ public interface PlayerManager {
         return this.getPlayers().size();
     }
 
+    /**
+     * @param service the service or proxy
+     * @return the amount of players on the service
+     */
+    default int getOnlineCount(@NotNull CloudService service) {
+        return this.getPlayers(service).size();
+    }
+
     /**
      * registers a cloud player
      * @param cloudPlayer the player to register
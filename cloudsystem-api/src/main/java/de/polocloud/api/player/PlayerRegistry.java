@@ -0,0 +1,170 @@
+package de.polocloud.api.player;
+
+import de.polocloud.api.service.CloudService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * the cached players, indexed by unique id, name and the services they are on
+ * a player is a member of its proxy and of its server, changes are made while holding the lock of the registry
+ * reads never lock and the returned collections are live views, they do not copy the players
+ */
+public final class PlayerRegistry {
+
+    private final Map<UUID, CloudPlayer> playersByUniqueId;
+    private final Map<String, CloudPlayer> playersByName;
+    private final Map<String, Members> playersByService;
+    private final Collection<CloudPlayer> players;
+
+    public PlayerRegistry() {
+        this.playersByUniqueId = new ConcurrentHashMap<>();
+        this.playersByName = new ConcurrentHashMap<>();
+        this.playersByService = new ConcurrentHashMap<>();
+        this.players = Collections.unmodifiableCollection(this.playersByUniqueId.values());
+    }
+
+    /**
+     * @return the player with the same unique id which was replaced, or null
+     */
+    public synchronized @Nullable CloudPlayer add(final @NotNull CloudPlayer player) {
+        // the old player is replaced in place, a reader never misses the unique id or the name
+        final var oldPlayer = this.playersByUniqueId.put(player.getUniqueId(), player);
+        this.playersByName.put(toKey(player.getUsername()), player);
+        if (oldPlayer != null) {
+            this.playersByName.remove(toKey(oldPlayer.getUsername()), oldPlayer);
+            this.leave(oldPlayer.getProxyServer(), oldPlayer);
+            this.leave(oldPlayer.getServer(), oldPlayer);
+        }
+        this.join(player.getProxyServer(), player);
+        this.join(player.getServer(), player);
+        return oldPlayer;
+    }
+
+    /**
+     * replaces all players without clearing first, a player in both collections stays visible to readers
+     */
+    public synchronized void replace(final @NotNull Collection<? extends CloudPlayer> players) {
+        final var uniqueIds = new HashSet<UUID>(players.size());
+        for (final var player : players) {
+            this.add(player);
+            uniqueIds.add(player.getUniqueId());
+        }
+        for (final var uniqueId : List.copyOf(this.playersByUniqueId.keySet())) {
+            if (!uniqueIds.contains(uniqueId)) this.remove(uniqueId);
+        }
+    }
+
+    /**
+     * @return the removed player or null if it was not cached
+     */
+    public synchronized @Nullable CloudPlayer remove(final @NotNull UUID uniqueId) {
+        final var player = this.playersByUniqueId.remove(uniqueId);
+        if (player == null) return null;
+        this.playersByName.remove(toKey(player.getUsername()), player);
+        this.leave(player.getProxyServer(), player);
+        this.leave(player.getServer(), player);
+        return player;
+    }
+
+    /**
+     * changes the services of a player, a cached player is moved to the members of its new services
+     * @param change sets the new proxy or server of the player
+     */
+    public synchronized void update(final @NotNull CloudPlayer player, final @NotNull Runnable change) {
+        if (this.playersByUniqueId.get(player.getUniqueId()) != player) {
+            // a copy of a cached player, for example from a packet
+            change.run();
+            return;
+        }
+        this.leave(player.getProxyServer(), player);
+        this.leave(player.getServer(), player);
+        change.run();
+        this.join(player.getProxyServer(), player);
+        this.join(player.getServer(), player);
+    }
+
+    /**
+     * forgets the members of a removed service, players still on it are not counted on a new service with the same name
+     * a view of the removed service stays empty, the next service with the name gets a new one
+     */
+    public synchronized void removeService(final @NotNull String service) {
+        final var members = this.playersByService.remove(toKey(service));
+        if (members != null) members.players().clear();
+    }
+
+    public synchronized void clear() {
+        this.playersByUniqueId.clear();
+        this.playersByName.clear();
+        this.playersByService.values().forEach(members -> members.players().clear());
+        this.playersByService.clear();
+    }
+
+    public @Nullable CloudPlayer get(final @NotNull UUID uniqueId) {
+        return this.playersByUniqueId.get(uniqueId);
+    }
+
+    public @Nullable CloudPlayer get(final @NotNull String username) {
+        return this.playersByName.get(toKey(username));
+    }
+
+    /**
+     * @return a view of all players
+     */
+    public @NotNull Collection<CloudPlayer> getAll() {
+        return this.players;
+    }
+
+    /**
+     * @param service the name of a service or proxy
+     * @return a live view of the players on the service until it is removed, an empty set if no player joined it yet
+     */
+    public @NotNull Collection<CloudPlayer> getByService(final @NotNull String service) {
+        // unknown names are not stored, a lookup never grows the registry
+        final var members = this.playersByService.get(toKey(service));
+        return members == null ? Set.of() : members.view();
+    }
+
+    /**
+     * @param service the name of a service or proxy
+     */
+    public int count(final @NotNull String service) {
+        final var members = this.playersByService.get(toKey(service));
+        return members == null ? 0 : members.players().size();
+    }
+
+    public int size() {
+        return this.playersByUniqueId.size();
+    }
+
+    private void join(final @Nullable CloudService service, final CloudPlayer player) {
+        if (service == null) return;
+        // created by the first player, the members stay until the service is removed
+        this.playersByService.computeIfAbsent(toKey(service.getName()), key -> {
+            final Set<CloudPlayer> players = ConcurrentHashMap.newKeySet();
+            return new Members(players, Collections.unmodifiableSet(players));
+        }).players().add(player);
+    }
+
+    private void leave(final @Nullable CloudService service, final CloudPlayer player) {
+        if (service == null) return;
+        final var members = this.playersByService.get(toKey(service.getName()));
+        if (members != null) members.players().remove(player);
+    }
+
+    private static String toKey(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private record Members(Set<CloudPlayer> players, Set<CloudPlayer> view) {}
+
+}
@@ -11,15 +11,19 @@ import de.polocloud.api.network.packet.player.CloudPlayerLoginPacket;
 import de.polocloud.api.network.packet.player.CloudPlayerUpdatePacket;
 import de.polocloud.api.player.CloudPlayer;
 import de.polocloud.api.player.PlayerManager;
+import de.polocloud.api.player.PlayerRegistry;
+import de.polocloud.api.service.CloudService;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
 public abstract class AbstractPlayerManager implements PlayerManager {
 
-    protected Map<UUID, CloudPlayer> players;
+    protected final PlayerRegistry players;
 
     public AbstractPlayerManager() {
+        this.players = new PlayerRegistry();
 
         final var packetHandler = CloudAPI.getInstance().getPacketHandler();
         final var eventHandler = CloudAPI.getInstance().getEventHandler();
@@ -33,34 +37,80 @@ public abstract class AbstractPlayerManager implements PlayerManager {
         packetHandler.registerPacketListener(CloudPlayerLoginPacket.class, (channelHandlerContext, packet) ->
             CloudAPI.getInstance().getServiceManager().getService(packet.getProxyServer()).ifPresentOrElse(service -> {
                 final var cloudPlayer = new SimpleCloudPlayer(packet.getUuid(), packet.getUsername(), service);
-                this.players.put(packet.getUuid(), cloudPlayer);
+                this.addPlayer(cloudPlayer);
                 eventHandler.call(new CloudPlayerLoginEvent(cloudPlayer));
             }, () -> CloudAPI.getInstance().getLogger()
                 .log("Proxy " + packet.getProxyServer() + " not found for player "
                     + packet.getUsername() + ":" + packet.getUuid(), LogType.ERROR)));
 
-        packetHandler.registerPacketListener(CloudPlayerDisconnectPacket.class, (channelHandlerContext, packet) ->
-            this.getCloudPlayer(packet.getUniqueId()).ifPresent(cloudPlayer -> {
-                this.players.remove(cloudPlayer.getUniqueId());
-                eventHandler.call(new CloudPlayerDisconnectEvent(cloudPlayer));
-            }));
+        packetHandler.registerPacketListener(CloudPlayerDisconnectPacket.class, (channelHandlerContext, packet) -> {
+            final var cloudPlayer = this.removePlayer(packet.getUniqueId());
+            if (cloudPlayer != null) eventHandler.call(new CloudPlayerDisconnectEvent(cloudPlayer));
+        });
 
-        eventHandler.registerEvent(CloudServiceRemoveEvent.class, event ->
-            this.players.values().forEach(player -> {
+        eventHandler.registerEvent(CloudServiceRemoveEvent.class, event -> {
+            // the players of a proxy are gone with it, players on a server move on with their next update
+            // players without proxy are dropped on every removal, like before the registry
+            for (final var player : List.copyOf(this.players.getAll())) {
                 if (player.getProxyServer() == null || player.getProxyServer().getName().equals(event.getService()))
-                    this.players.remove(player.getUniqueId());
-            })
-        );
+                    this.removePlayer(player.getUniqueId());
+            }
+            this.players.removeService(event.getService());
+        });
+
+    }
+
+    public void setPlayers(final @NotNull Collection<CloudPlayer> players) {
+        this.players.replace(players);
+    }
+
+    public void addPlayers(final @NotNull Collection<CloudPlayer> players) {
+        for (final var player : players) this.addPlayer(player);
+    }
+
+    /**
+     * caches a player and counts it on its proxy and server
+     */
+    protected void addPlayer(final @NotNull CloudPlayer player) {
+        this.players.add(player);
+    }
+
+    /**
+     * @return the removed player or null if the player was not cached
+     */
+    protected @Nullable CloudPlayer removePlayer(final @NotNull UUID uniqueId) {
+        return this.players.remove(uniqueId);
+    }
+
+    /**
+     * sets the server of a player, only a cached player is moved and not copies of it
+     */
+    void switchServer(final @NotNull SimpleCloudPlayer player, final @Nullable CloudService server) {
+        this.players.update(player, () -> player.applyServer(server));
+    }
+
+    public @NotNull PlayerRegistry getPlayerRegistry() {
+        return this.players;
+    }
 
+    @Override
+    public int getOnlineCount(final @NotNull CloudService service) {
+        return this.players.count(service.getName());
     }
 
-    public void setPlayers(final Map<UUID, CloudPlayer> players) {
-        this.players = players;
+    @Override
+    public int getOnlineCount() {
+        return this.players.size();
+    }
+
+    @Override
+    public @NotNull Collection<CloudPlayer> getPlayers() {
+        return this.players.getAll();
     }
 
     @Override
-    public @NotNull List<CloudPlayer> getPlayers() {
-        return Arrays.asList(this.players.values().toArray(new CloudPlayer[0]));
+    public @NotNull Collection<CloudPlayer> getPlayers(final @NotNull CloudService service) {
+        return this.players.getByService(service.getName());
     }
 
     @Override
@@ -70,17 +120,17 @@ public abstract class AbstractPlayerManager implements PlayerManager {
 
     @Override
     public @NotNull Optional<CloudPlayer> getCloudPlayer(final @NotNull String username) {
-        return this.players.values().stream().filter(it -> it.getUsername().equalsIgnoreCase(username)).findAny();
+        return Optional.ofNullable(this.players.get(username));
     }
 
     @Override
     public CloudPlayer getCloudPlayerByNameOrNull(@NotNull String username) {
-        return this.getCloudPlayer(username).orElse(null);
+        return this.players.get(username);
     }
 
     @Override
     public CloudPlayer getCloudPlayerByUniqueIdOrNull(@NotNull UUID uniqueId) {
-        return this.getCloudPlayer(uniqueId).orElse(null);
+        return this.players.get(uniqueId);
     }
 
 }
@@ -4,6 +4,7 @@ import de.polocloud.api.CloudAPI;
 import de.polocloud.api.event.player.CloudPlayerUpdateEvent;
 import de.polocloud.api.player.CloudPlayer;
 import de.polocloud.api.service.CloudService;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -21,8 +22,23 @@ public final class SimpleCloudPlayer implements CloudPlayer {
     private final UUID uniqueId;
     private final String username;
     private final CloudService proxyServer;
+    @Setter(AccessLevel.NONE)
     private CloudService server;
 
+    @Override
+    public void setServer(@NotNull CloudService server) {
+        // the player manager counts the players of every service
+        if (CloudAPI.getInstance().getPlayerManager() instanceof AbstractPlayerManager playerManager) {
+            playerManager.switchServer(this, server);
+        } else {
+            this.server = server;
+        }
+    }
+
+    void applyServer(final CloudService server) {
+        this.server = server;
+    }
+
     @Override
     public void update() {
         CloudAPI.getInstance().getPlayerManager().updateCloudPlayer(this);
@@ -8,6 +8,7 @@ import de.polocloud.network.packet.Packet;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public interface CloudService {
 
@@ -69,12 +70,7 @@ public interface CloudService {
      * @return the online amount of the service
      */
     default int getOnlineCount() {
-        return (int) CloudAPI.getInstance().getPlayerManager().getPlayers()
-            .stream()
-            .filter(player -> {
-                CloudService service = this.getGroup().getGameServerVersion().isProxy() ? player.getProxyServer() : player.getServer();
-                return service != null && service.equals(this);
-            }).count();
+        return CloudAPI.getInstance().getPlayerManager().getOnlineCount(this);
     }
 
     /**
@@ -130,13 +126,13 @@ public interface CloudService {
      */
     default void write(@NotNull NetworkBuf networkBuf) {
         networkBuf
-            .writeString(this.getGroup().getName())
+            .writeIdentifier(this.getGroup().getName())
             .writeInt(this.getServiceId())
-            .writeString(this.getNode())
+            .writeIdentifier(this.getNode())
             .writeInt(this.getPort())
-            .writeString(this.getHostName())
+            .writeIdentifier(this.getHostName())
             .writeInt(this.getMaxPlayers())
-            .writeString(this.getState())
+            .writeIdentifier(this.getState())
             .writeString(this.getMotd());
     }
 
@@ -144,15 +140,22 @@ public interface CloudService {
      * reads a service from a network buf
      */
     static CloudService read(@NotNull NetworkBuf networkBuf) {
-        return new SimpleService(
-            networkBuf.readString(),
-            networkBuf.readInt(),
-            networkBuf.readString(),
-            networkBuf.readInt(),
-            networkBuf.readString(),
-            networkBuf.readInt(),
-            networkBuf.readString(),
-            networkBuf.readString());
+        return readDeferred(networkBuf).get();
+    }
+
+    /**
+     * reads a service from a network buf, the group is resolved when the supplier is called
+     */
+    static Supplier<CloudService> readDeferred(@NotNull NetworkBuf networkBuf) {
+        final var group = networkBuf.readIdentifier();
+        final var serviceId = networkBuf.readInt();
+        final var node = networkBuf.readIdentifier();
+        final var port = networkBuf.readInt();
+        final var hostName = networkBuf.readIdentifier();
+        final var maxPlayers = networkBuf.readInt();
+        final var state = networkBuf.readIdentifier();
+        final var motd = networkBuf.readString();
+        return () -> new SimpleService(group, serviceId, node, port, hostName, maxPlayers, state, motd);
     }
 
 }
@@ -11,14 +11,23 @@ import java.util.Optional;
 public interface ServiceManager {
 
     /**
-     * @return all cached service
+     * @return the registry which holds the cached services
      */
-    @NotNull List<CloudService> getAllCachedServices();
+    @NotNull ServiceRegistry getServiceRegistry();
+
+    /**
+     * @return all cached service, the list must not be modified
+     */
+    default @NotNull List<CloudService> getAllCachedServices() {
+        return this.getServiceRegistry().getAll();
+    }
 
     /**
      * @param services the services to set
      */
-    void setAllCachedServices(@NotNull List<CloudService> services);
+    default void setAllCachedServices(@NotNull List<CloudService> services) {
+        this.getServiceRegistry().replace(services);
+    }
 
     /**
      * gets all services by a group
@@ -26,7 +35,7 @@ public interface ServiceManager {
      * @return the services of a group
      */
     default List<CloudService> getAllServicesByGroup(@NotNull ServiceGroup serviceGroup) {
-        return this.getAllCachedServices().stream().filter(service -> service.getGroup().equals(serviceGroup)).toList();
+        return this.getServiceRegistry().getByGroup(serviceGroup.getName());
     }
 
     /**
@@ -35,7 +44,16 @@ public interface ServiceManager {
      * @return the services of a state
      */
     default List<CloudService> getAllServicesByState(@NotNull String state) {
-        return this.getAllCachedServices().stream().filter(it -> it.getState().equalsIgnoreCase(state)).toList();
+        return this.getServiceRegistry().getByState(state);
+    }
+
+    /**
+     * gets all services of a node
+     * @param node the name of the node
+     * @return the services started on the node
+     */
+    default List<CloudService> getAllServicesByNode(@NotNull String node) {
+        return this.getServiceRegistry().getByNode(node);
     }
 
     /**
@@ -44,7 +62,7 @@ public interface ServiceManager {
      * @return the service or null when the service does not exist
      */
     default @NotNull Optional<CloudService> getService(@NotNull String name) {
-        return this.getAllCachedServices().stream().filter(it -> it.getName().equalsIgnoreCase(name)).findFirst();
+        return Optional.ofNullable(this.getServiceRegistry().get(name));
     }
 
     /**
@@ -53,7 +71,7 @@ public interface ServiceManager {
      * @return the service or null when the service does not exist
      */
     default @Nullable CloudService getServiceByNameOrNull(@NotNull String name) {
-        return this.getService(name).orElse(null);
+        return this.getServiceRegistry().get(name);
     }
 
     /**
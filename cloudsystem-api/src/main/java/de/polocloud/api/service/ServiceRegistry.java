@@ -0,0 +1,254 @@
+package de.polocloud.api.service;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * the cached services, indexed by name, group, state and node
+ * reads never lock, every change copies the lists it touched while holding the lock and publishes them through a volatile field
+ */
+public final class ServiceRegistry {
+
+    // replaced as a whole, a reader never sees a half replaced cache
+    private volatile Indexes indexes;
+    private final List<Runnable> listeners;
+
+    public ServiceRegistry() {
+        this.indexes = new Indexes();
+        this.listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * @param listener called after a service was added, removed or changed its state, outside the lock of the registry
+     */
+    public void addListener(final @NotNull Runnable listener) {
+        this.listeners.add(listener);
+    }
+
+    /**
+     * @return false if a service with the same name is already registered
+     */
+    public boolean add(final @NotNull CloudService service) {
+        synchronized (this) {
+            if (!this.indexes.add(service)) return false;
+        }
+        this.notifyListeners();
+        return true;
+    }
+
+    public void addAll(final @NotNull Collection<? extends CloudService> services) {
+        var changed = false;
+        synchronized (this) {
+            final var indexes = this.indexes;
+            for (final var service : services) changed |= indexes.put(service);
+            if (changed) indexes.publish();
+        }
+        if (changed) this.notifyListeners();
+    }
+
+    /**
+     * @return false if the service was not registered
+     */
+    public boolean remove(final @Nullable CloudService service) {
+        if (service == null) return false;
+        synchronized (this) {
+            if (!this.indexes.remove(service)) return false;
+        }
+        this.notifyListeners();
+        return true;
+    }
+
+    /**
+     * replaces all services at once, readers see either the old or the new services
+     */
+    public void replace(final @NotNull Collection<? extends CloudService> services) {
+        final var indexes = new Indexes();
+        // the lists are copied once after all services are in, not once per service
+        services.forEach(indexes::put);
+        indexes.publish();
+        synchronized (this) {
+            this.indexes = indexes;
+        }
+        this.notifyListeners();
+    }
+
+    /**
+     * moves a service to the bucket of its new state, called by the services after the state was set
+     * @param oldState the state before the change
+     */
+    public void updateState(final @NotNull CloudService service, final @NotNull String oldState) {
+        synchronized (this) {
+            // services which are not cached yet, or only copies of cached ones, are not indexed
+            final var indexes = this.indexes;
+            if (indexes.servicesByName.get(toKey(service.getName())) != service) return;
+            if (!indexes.servicesByState.move(service, oldState)) return;
+        }
+        this.notifyListeners();
+    }
+
+    public @Nullable CloudService get(final @NotNull String name) {
+        return this.indexes.servicesByName.get(toKey(name));
+    }
+
+    /**
+     * @return all services in the order they were added, the list must not be modified
+     */
+    public @NotNull List<CloudService> getAll() {
+        return this.indexes.services.snapshot;
+    }
+
+    public @NotNull List<CloudService> getByGroup(final @NotNull String group) {
+        return this.indexes.servicesByGroup.get(group);
+    }
+
+    public @NotNull List<CloudService> getByState(final @NotNull String state) {
+        return this.indexes.servicesByState.get(state);
+    }
+
+    public @NotNull List<CloudService> getByNode(final @NotNull String node) {
+        return this.indexes.servicesByNode.get(node);
+    }
+
+    public int size() {
+        return this.indexes.servicesByName.size();
+    }
+
+    private void notifyListeners() {
+        for (final var listener : this.listeners) {
+            try {
+                listener.run();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private static String toKey(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Indexes {
+
+        private final Map<String, CloudService> servicesByName = new ConcurrentHashMap<>();
+        private final Bucket services = new Bucket();
+        private final Index servicesByGroup = new Index(service -> service.getGroup().getName());
+        private final Index servicesByState = new Index(CloudService::getState);
+        private final Index servicesByNode = new Index(CloudService::getNode);
+
+        private boolean add(final CloudService service) {
+            if (!this.put(service)) return false;
+            this.services.publish();
+            this.servicesByGroup.publish(service);
+            this.servicesByState.publish(service);
+            this.servicesByNode.publish(service);
+            return true;
+        }
+
+        // adds without copying the lists, publish has to be called afterwards
+        private boolean put(final CloudService service) {
+            if (this.servicesByName.putIfAbsent(toKey(service.getName()), service) != null) return false;
+            this.services.add(service);
+            this.servicesByGroup.add(service);
+            this.servicesByState.add(service);
+            this.servicesByNode.add(service);
+            return true;
+        }
+
+        private boolean remove(final CloudService service) {
+            if (!this.servicesByName.remove(toKey(service.getName()), service)) return false;
+            this.services.remove(service);
+            this.services.publish();
+            this.servicesByGroup.remove(service);
+            this.servicesByState.remove(service);
+            this.servicesByNode.remove(service);
+            return true;
+        }
+
+        private void publish() {
+            this.services.publish();
+            this.servicesByGroup.publishAll();
+            this.servicesByState.publishAll();
+            this.servicesByNode.publishAll();
+        }
+
+    }
+
+    private static final class Index {
+
+        private final Function<CloudService, String> keyFunction;
+        private final Map<String, Bucket> buckets;
+
+        private Index(final Function<CloudService, String> keyFunction) {
+            this.keyFunction = keyFunction;
+            this.buckets = new ConcurrentHashMap<>();
+        }
+
+        private void add(final CloudService service) {
+            this.buckets.computeIfAbsent(toKey(this.keyFunction.apply(service)), key -> new Bucket()).add(service);
+        }
+
+        private void publish(final CloudService service) {
+            this.buckets.get(toKey(this.keyFunction.apply(service))).publish();
+        }
+
+        private void publishAll() {
+            this.buckets.values().forEach(Bucket::publish);
+        }
+
+        private void remove(final CloudService service) {
+            this.remove(service, this.keyFunction.apply(service));
+        }
+
+        private void remove(final CloudService service, final String key) {
+            final var bucket = this.buckets.get(toKey(key));
+            if (bucket == null) return;
+            bucket.remove(service);
+            bucket.publish();
+        }
+
+        private boolean move(final CloudService service, final String oldKey) {
+            if (toKey(oldKey).equals(toKey(this.keyFunction.apply(service)))) return false;
+            this.remove(service, oldKey);
+            this.add(service);
+            this.publish(service);
+            return true;
+        }
+
+        private List<CloudService> get(final String key) {
+            final var bucket = this.buckets.get(toKey(key));
+            return bucket == null ? List.of() : bucket.snapshot;
+        }
+
+    }
+
+    private static final class Bucket {
+
+        // keyed by name, only changed while holding the registry lock
+        private final Map<String, CloudService> entries = new LinkedHashMap<>();
+        // copied by the writer, a read is a plain volatile read
+        private volatile List<CloudService> snapshot = List.of();
+
+        private void add(final CloudService service) {
+            this.entries.putIfAbsent(toKey(service.getName()), service);
+        }
+
+        private void remove(final CloudService service) {
+            this.entries.remove(toKey(service.getName()), service);
+        }
+
+        private void publish() {
+            this.snapshot = List.copyOf(this.entries.values());
+        }
+
+    }
+
+}
@@ -44,6 +44,13 @@ public final class SimpleService implements CloudService {
         this.motd = motd;
     }
 
+    @Override
+    public void setState(final @NotNull String state) {
+        final var oldState = this.state;
+        this.state = state;
+        CloudAPI.getInstance().getServiceManager().getServiceRegistry().updateState(this, oldState);
+    }
+
     @Override
     public @NotNull String getName() {
         return this.group.getName() + "-" + this.serviceId;
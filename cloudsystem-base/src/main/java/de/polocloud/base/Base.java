@@ -180,6 +180,7 @@ public final class Base extends CloudAPI {
     public void onShutdown() {
         if (!this.running) return;
         this.running = false;
+        this.workerThread.interrupt();
         this.logger.log("§7Trying to terminate the §bcloudsystem§7.");
         ((SimpleLogger) this.logger).getConsoleManager().shutdownReading();
         this.serviceManager.getAllCachedServices()
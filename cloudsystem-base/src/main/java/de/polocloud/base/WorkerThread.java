@@ -2,65 +2,103 @@ package de.polocloud.base;
 
 import de.polocloud.api.groups.ServiceGroup;
 import de.polocloud.api.logger.LogType;
+import de.polocloud.api.network.packet.group.ServiceGroupExecutePacket;
+import de.polocloud.api.network.packet.group.ServiceGroupUpdatePacket;
 import de.polocloud.api.network.packet.service.ServiceAddPacket;
 import de.polocloud.api.service.ServiceState;
 import de.polocloud.base.service.LocalService;
 import de.polocloud.base.service.SimpleServiceManager;
 import de.polocloud.base.service.port.PortHandler;
+import io.netty.util.concurrent.DefaultThreadFactory;
 
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
+/**
+ * runs the tasks of the node one after another, nothing is polled
+ * the services are checked again once a service or group changed or a process exited
+ */
 public final class WorkerThread extends Thread {
 
     private final static int MAX_BOOTABLE_SERVICES = 1;
 
     private final Base base;
-    private final StringBuffer stringBuffer = new StringBuffer();
-    private final byte[] bytes = new byte[2048];
-
-    private final List<Runnable> runnableList;
+    private final BlockingQueue<Runnable> tasks;
+    private final AtomicBoolean checkRequested;
+    // blocks on the output of the processes, one task per stream
+    private final ExecutorService processReaders;
 
     WorkerThread(final Base base) {
         super("PoloCloud-Worker-Thread");
         this.base = base;
-        this.runnableList = new ArrayList<>();
+        this.tasks = new LinkedBlockingQueue<>();
+        this.checkRequested = new AtomicBoolean();
+        this.processReaders = Executors.newCachedThreadPool(new DefaultThreadFactory("PoloCloud-Process", true));
+    }
+
+    @Override
+    public synchronized void start() {
+        // registered after the managers, so their listeners have applied a change before it is checked
+        this.base.getServiceManager().getServiceRegistry().addListener(this::requestCheck);
+        this.base.getPacketHandler().registerPacketListener(ServiceGroupExecutePacket.class, (ctx, packet) -> this.requestCheck());
+        this.base.getPacketHandler().registerPacketListener(ServiceGroupUpdatePacket.class, (ctx, packet) -> this.requestCheck());
+        this.requestCheck();
+        super.start();
     }
 
     @Override
     public void run() {
         while (this.base.isRunning()) {
-            this.checkForQueue();
-
-            for (final var service : this.base.getServiceManager().getAllCachedServices()) {
-                if (service instanceof LocalService localService) {
-                    final var process = localService.getProcess();
-                    if (process == null) continue;
-                    if (process.isAlive()) {
-                        this.readStream(process.getErrorStream(),
-                            s -> this.base.getLogger().log("[" + service.getName() + "] " + s, LogType.ERROR));
-                        if (localService.isScreen()) this.readStream(process.getInputStream(),
-                            s -> this.base.getLogger().log("[" + service.getName() + "] " + s, LogType.INFO));
-                    }
-                }
-            }
-
-            this.runnableList.forEach(Runnable::run);
-            this.runnableList.clear();
-
+            final Runnable task;
             try {
-                Thread.sleep(200L);
+                task = this.tasks.take();
             } catch (InterruptedException e) {
+                break;
+            }
+            try {
+                task.run();
+            } catch (Exception e) {
                 e.printStackTrace();
             }
         }
+        this.processReaders.shutdownNow();
+    }
+
+    /**
+     * checks the services once on the worker thread, requests before the check started are merged into it
+     */
+    public void requestCheck() {
+        if (this.checkRequested.compareAndSet(false, true)) this.tasks.add(this::checkForQueue);
+    }
+
+    /**
+     * forwards the output of a started process to the logger and removes the service once the process exited
+     */
+    public void watch(final LocalService service, final Process process) {
+        this.processReaders.execute(() -> this.readStream(process.getErrorStream(),
+            s -> this.base.getLogger().log("[" + service.getName() + "] " + s, LogType.ERROR)));
+        // the output is always read, a full pipe would block the process while its screen is closed
+        this.processReaders.execute(() -> this.readStream(process.getInputStream(), s -> {
+            if (service.isScreen()) this.base.getLogger().log("[" + service.getName() + "] " + s, LogType.INFO);
+        }));
+        process.onExit().thenRun(() -> this.addRunnable(() -> {
+            this.base.getNode().onProcessExit(service);
+            this.requestCheck();
+        }));
     }
 
     private void checkForQueue() {
+        // cleared first, a change during the check is checked again afterwards
+        this.checkRequested.set(false);
         this.addServiceToQueueWhereProvided();
         if (this.minBootableServiceExists()) return;
         final var services = this.base.getServiceManager().getAllServicesByState(ServiceState.PREPARED)
@@ -76,8 +114,8 @@ public final class WorkerThread extends Thread {
             .forEach(serviceGroup -> {
                 final var service = new LocalService(serviceGroup, this.getPossibleServiceIDByGroup(serviceGroup),
                     PortHandler.getNextPort(serviceGroup), this.base.getNode().getHostName());
-                this.base.getServiceManager().getAllCachedServices().add(service);
-                this.base.getNode().sendPacketToAll(new ServiceAddPacket(service));
+                this.base.getServiceManager().getServiceRegistry().add(service);
+                this.base.getNode().publish(new ServiceAddPacket(service));
                 this.base.getLogger()
                     .log("§7The group '§b" + serviceGroup.getName() + "§7' starts a new instance of '§b" + service.getName()
                         + "§7' (§6Prepared§7)");
@@ -93,8 +131,7 @@ public final class WorkerThread extends Thread {
     }
 
     private int getAmountOfGroupServices(final ServiceGroup serviceGroup) {
-        return (int) this.base.getServiceManager().getAllCachedServices().stream()
-            .filter(service -> service.getGroup().equals(serviceGroup)).count();
+        return this.base.getServiceManager().getAllServicesByGroup(serviceGroup).size();
     }
 
     private int getPossibleServiceIDByGroup(final ServiceGroup serviceGroup) {
@@ -109,25 +146,19 @@ public final class WorkerThread extends Thread {
     }
 
     private void readStream(final InputStream inputStream, final Consumer<String> consumer) {
-        int length;
-        try {
-            while (inputStream.available() > 0
-                && (length = inputStream.read(this.bytes, 0, this.bytes.length)) != -1) {
-                this.stringBuffer.append(new String(this.bytes, 0, length, StandardCharsets.UTF_8));
-            }
-
-            final var string = this.stringBuffer.toString();
-            if (string.contains("\n")) {
-                for (final var s : string.split("\n")) consumer.accept(s);
-            }
-            this.stringBuffer.setLength(0);
-        } catch (IOException e) {
-            e.printStackTrace();
+        try (final var reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) consumer.accept(line);
+        } catch (IOException ignored) {
+            // the process was destroyed
         }
     }
 
+    /**
+     * runs a task on the worker thread, can be called from any thread
+     */
     public void addRunnable(final Runnable runnable) {
-        this.runnableList.add(runnable);
+        this.tasks.add(runnable);
     }
 
 }
@@ -9,11 +9,13 @@ public final class InfoCommand extends CloudCommand {
     @Override
     public void execute(Base base, String[] args) {
         var runtime = Runtime.getRuntime();
+        var compressionMetrics = base.getNode().getCompressionMetrics();
 
         base.getLogger().log("§7Version: §b" + Base.getInstance().getVersion(),
             "§7Node: §b" + Base.getInstance().getNode().getName(),
             "§7Threads: §b" + Thread.getAllStackTraces().keySet().size(),
-            "§7RAM: §b" + calcMemory(runtime.totalMemory() - runtime.freeMemory()) + "/" + calcMemory(runtime.maxMemory()) + "mb");
+            "§7RAM: §b" + calcMemory(runtime.totalMemory() - runtime.freeMemory()) + "/" + calcMemory(runtime.maxMemory()) + "mb",
+            "§7Compression: §b" + compressionMetrics.getFrames() + " §7frames, ratio §b" + String.format("%.2f", compressionMetrics.getRatio()));
     }
 
     private long calcMemory(final long memory) {
@@ -73,7 +73,13 @@ public final class ServiceCommand extends CloudCommand {
                         "Motd: §b" + service.getMotd());
 
                     //get current service memory
-                    ((LocalService)service).getMemory().thenAccept(integer -> logger.log("Current memory: §b" + integer + "mb"));
+                    ((LocalService)service).getMemory().whenComplete((memory, throwable) -> {
+                        if (throwable != null) {
+                            logger.log("§7The memory of the service could not be requested.", LogType.WARNING);
+                        } else {
+                            logger.log("Current memory: §b" + memory + "mb");
+                        }
+                    });
                 }
 
             }, () -> logger.log("This service does not exists.", LogType.WARNING));
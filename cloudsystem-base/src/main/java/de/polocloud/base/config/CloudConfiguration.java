@@ -1,6 +1,7 @@
 package de.polocloud.base.config;
 
 import de.polocloud.database.DatabaseConfiguration;
+import de.polocloud.network.TransportType;
 import lombok.Getter;
 
 import java.util.ArrayList;
@@ -17,6 +18,20 @@ public class CloudConfiguration {
     private final int proxyStartPort;
     private final boolean checkForUpdate;
     private final List<String> jvmFlags;
+    // payloads of node connections from this size on are compressed, -1 disables it
+    private final int nodeCompressionThreshold;
+    // service and group updates within this time are sent as one, 0 sends every update
+    private final long updateCoalescingMillis;
+    // a running service which lost its connection is kept this long for a reconnect, 0 removes it immediately
+    private final long serviceReconnectMillis;
+    // how often a cache mutation is passed on from node to node, 0 fits a full mesh where every node reaches every other one
+    private final int queryHopLimit;
+    // 0 sends a mutation to every connected node, otherwise to this many random nodes (gossip, the hop limit is derived if it is 0)
+    private final int queryGossipFanout;
+    // AUTO picks epoll if it is available, 0 worker threads uses twice the amount of cores
+    private final TransportType transport;
+    private final int bossThreads;
+    private final int workerThreads;
 
     // default parameters
     public CloudConfiguration() {
@@ -28,6 +43,14 @@ public class CloudConfiguration {
         this.proxyStartPort = 25565;
         this.checkForUpdate = true;
         this.jvmFlags = new ArrayList<>();
+        this.nodeCompressionThreshold = -1;
+        this.updateCoalescingMillis = 50;
+        this.serviceReconnectMillis = 15_000;
+        this.queryHopLimit = 0;
+        this.queryGossipFanout = 0;
+        this.transport = TransportType.AUTO;
+        this.bossThreads = 1;
+        this.workerThreads = 0;
     }
 
 }
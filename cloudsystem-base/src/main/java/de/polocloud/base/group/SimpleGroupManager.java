@@ -3,13 +3,11 @@ package de.polocloud.base.group;
 import de.polocloud.api.groups.ServiceGroup;
 import de.polocloud.api.groups.impl.AbstractGroupManager;
 import de.polocloud.api.groups.impl.SimpleServiceGroup;
-import de.polocloud.api.network.packet.QueryPacket;
 import de.polocloud.api.network.packet.group.ServiceGroupExecutePacket;
 import de.polocloud.api.network.packet.group.ServiceGroupUpdatePacket;
 import de.polocloud.api.version.GameServerVersion;
 import de.polocloud.base.Base;
 import de.polocloud.database.CloudDatabaseProvider;
-import de.polocloud.network.NetworkType;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
@@ -55,25 +53,29 @@ public final class SimpleGroupManager extends AbstractGroupManager {
     @Override
     public void addServiceGroup(final @NotNull ServiceGroup serviceGroup) {
         this.database.addGroup(serviceGroup);
-        Base.getInstance().getNode().sendPacketToAll(new ServiceGroupExecutePacket(serviceGroup, ServiceGroupExecutePacket.Executor.CREATE));
         super.addServiceGroup(serviceGroup);
+        this.sendExecutePacket(new ServiceGroupExecutePacket(serviceGroup, ServiceGroupExecutePacket.Executor.CREATE));
+        Base.getInstance().getWorkerThread().requestCheck();
     }
 
 
     @Override
     public void removeServiceGroup(final @NotNull ServiceGroup serviceGroup) {
         this.database.removeGroup(serviceGroup);
-        Base.getInstance().getNode().sendPacketToAll(new ServiceGroupExecutePacket(serviceGroup, ServiceGroupExecutePacket.Executor.REMOVE));
         super.removeServiceGroup(serviceGroup);
+        this.sendExecutePacket(new ServiceGroupExecutePacket(serviceGroup, ServiceGroupExecutePacket.Executor.REMOVE));
+        Base.getInstance().getWorkerThread().requestCheck();
     }
 
     @Override
     public void updateServiceGroup(@NotNull ServiceGroup serviceGroup) {
-        final var packet = new ServiceGroupUpdatePacket(serviceGroup);
-        // update all other nodes and this service groups
-        Base.getInstance().getNode().sendPacketToType(new QueryPacket(packet, QueryPacket.QueryState.SECOND_RESPONSE), NetworkType.NODE);
-        // update own service group caches
-        Base.getInstance().getNode().sendPacketToType(packet, NetworkType.WRAPPER);
+        // only the latest state of a group is sent within the coalescing window
+        Base.getInstance().getNode().getUpdateCoalescer().send(new ServiceGroupUpdatePacket(serviceGroup));
+        Base.getInstance().getWorkerThread().requestCheck();
+    }
+
+    private void sendExecutePacket(final ServiceGroupExecutePacket packet) {
+        Base.getInstance().getNode().publish(packet);
     }
 
 }
@@ -2,37 +2,83 @@ package de.polocloud.base.node;
 
 import de.polocloud.api.event.service.CloudServiceRemoveEvent;
 import de.polocloud.api.logger.LogType;
-import de.polocloud.api.network.packet.init.CacheInitPacket;
 import de.polocloud.api.network.packet.service.ServiceRemovePacket;
 import de.polocloud.api.service.ServiceState;
 import de.polocloud.base.Base;
 import de.polocloud.base.config.CloudConfiguration;
 import de.polocloud.base.service.LocalService;
 import de.polocloud.network.NetworkType;
+import de.polocloud.network.Transport;
+import de.polocloud.network.handler.CompressionSettings;
+import de.polocloud.network.packet.Packet;
 import de.polocloud.network.server.NettyServer;
 import de.polocloud.network.server.client.ConnectedClient;
 import lombok.Getter;
+import org.jetbrains.annotations.NotNull;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
 
 @Getter
 public final class BaseNode extends NettyServer {
 
     private final String hostName;
     private final int port;
+    private final CacheUpdateLog cacheUpdateLog;
+    private final UpdateCoalescer updateCoalescer;
+    private final NodeMesh nodeMesh;
+    // services which lost their connection, removed once the reconnect time is over
+    private final Map<String, CompletableFuture<Void>> pendingRemovals;
+    private final long serviceReconnectMillis;
 
     public BaseNode(final CloudConfiguration cloudConfiguration) {
         super(Base.getInstance().getPacketHandler(), cloudConfiguration.getNodeConfiguration().getNodeName(), NetworkType.NODE);
 
         this.hostName = cloudConfiguration.getNodeConfiguration().getHostname();
         this.port = cloudConfiguration.getNodeConfiguration().getPort();
+        this.cacheUpdateLog = new CacheUpdateLog();
+        this.pendingRemovals = new ConcurrentHashMap<>();
+        this.serviceReconnectMillis = cloudConfiguration.getServiceReconnectMillis();
+        this.updateCoalescer = new UpdateCoalescer(cloudConfiguration.getUpdateCoalescingMillis(), packet -> {
+            // update all other nodes and the services of this node
+            this.getNodeMesh().publish(packet);
+            this.cacheUpdateLog.publish(packet);
+        });
+
+        this.setCompressionSettings(NetworkType.NODE,
+            new CompressionSettings(cloudConfiguration.getNodeCompressionThreshold(), Deflater.DEFAULT_COMPRESSION));
+
+        this.setTransport(new Transport(cloudConfiguration.getTransport(), cloudConfiguration.getBossThreads(), cloudConfiguration.getWorkerThreads()));
 
         new BaseNodeNetwork();
 
+        Base.getInstance().getLogger().log("§7Network transport: §b" + this.transport.describe());
+        this.nodeMesh = new NodeMesh(this, cloudConfiguration);
         this.connect(this.hostName, this.port);
         Base.getInstance().getLogger().log("§7The node clustering is §asuccessfully §7started.");
     }
 
+    /**
+     * sends a cache mutation to the other nodes and the services of this node, after the pending updates
+     * @param packet the mutation
+     */
+    public void publish(final @NotNull Packet packet) {
+        this.updateCoalescer.flush();
+        this.nodeMesh.publish(packet);
+        this.cacheUpdateLog.publish(packet);
+    }
+
+    @Override
+    public void close() {
+        this.updateCoalescer.close();
+        this.nodeMesh.close();
+        super.close();
+    }
+
     @Override
     public void onNodeConnected(final ConnectedClient connectedClient) {
         Base.getInstance().getLogger()
@@ -47,18 +93,20 @@ public final class BaseNode extends NettyServer {
 
     @Override
     public void onServiceConnected(final ConnectedClient connectedClient) {
+        final var pendingRemoval = this.pendingRemovals.remove(connectedClient.name());
+        if (pendingRemoval != null) {
+            pendingRemoval.cancel(false);
+            // the service resumes its cache with a CacheSyncRequestPacket, nothing else changed
+            Base.getInstance().getLogger().log("§7The service '§b" + connectedClient.name() + "§7' has §areconnected §7to the cluster.");
+            return;
+        }
 
         // set online
         if (Base.getInstance().getServiceManager().getServiceByNameOrNull(connectedClient.name())
             instanceof LocalService localService) {
             Objects.requireNonNull(localService).setState(ServiceState.STARTED);
 
-            // update cache
-            connectedClient.sendPacket(new CacheInitPacket(
-                Base.getInstance().getGroupManager().getAllCachedServiceGroups(),
-                Base.getInstance().getServiceManager().getAllCachedServices(),
-                Base.getInstance().getPlayerManager().getPlayers()));
-
+            // the service requests its cache with a CacheSyncRequestPacket after the handshake
             localService.update();
 
             Base.getInstance().getLogger().log(
@@ -68,17 +116,60 @@ public final class BaseNode extends NettyServer {
 
     @Override
     public void onServiceDisconnected(final ConnectedClient client) {
+        // stopping and deleting a service blocks, so it never runs on the event loop
+        // the worker thread runs one task after another, so the changes of a service are never interleaved
+        Base.getInstance().getWorkerThread().addRunnable(() -> this.handleServiceDisconnect(client));
+    }
+
+    private void handleServiceDisconnect(final ConnectedClient client) {
+        // the old connection of a service which already reconnected
+        if (this.getClientOrNull(client.name()) != null) return;
+
+        // a running service reconnects on its own, it is only removed if it does not come back in time
+        if (this.serviceReconnectMillis > 0
+            && Base.getInstance().getServiceManager().getServiceByNameOrNull(client.name()) instanceof LocalService localService
+            && localService.getProcess() != null && localService.getProcess().isAlive()) {
+            final var removal = new CompletableFuture<Void>();
+            this.pendingRemovals.put(client.name(), removal);
+            // only the deadline is timed here, the removal blocks and runs on the worker thread
+            removal.completeOnTimeout(null, this.serviceReconnectMillis, TimeUnit.MILLISECONDS).thenRunAsync(() -> {
+                if (this.pendingRemovals.remove(client.name(), removal)) this.removeService(client.name());
+            }, Base.getInstance().getWorkerThread()::addRunnable);
+            Base.getInstance().getLogger().log("§7The service '§b" + client.name() + "§7' lost its connection, waiting for a reconnect.");
+            return;
+        }
+        this.removeService(client.name());
+    }
+
+    /**
+     * called once the process of a local service exited, the service is removed at once if it never connected
+     * or if its reconnect is awaited, all other services are removed when their connection closes
+     */
+    public void onProcessExit(final @NotNull LocalService service) {
+        if (Base.getInstance().getServiceManager().getServiceByNameOrNull(service.getName()) != service) return;
+        final var pendingRemoval = this.pendingRemovals.remove(service.getName());
+        if (pendingRemoval != null) {
+            pendingRemoval.cancel(false);
+            this.removeService(service.getName());
+        } else if (service.getState().equals(ServiceState.STARTING) && this.getClientOrNull(service.getName()) == null) {
+            Base.getInstance().getLogger().log("§7The service '§b" + service.getName() + "§7' §cstopped §7before it connected.", LogType.WARNING);
+            this.removeService(service.getName());
+        }
+    }
+
+    private void removeService(final String name) {
         final var base = Base.getInstance();
 
-        base.getServiceManager().getService(client.name())
+        base.getServiceManager().getService(name)
             .ifPresentOrElse(service -> {
                 base.getEventHandler().call(new CloudServiceRemoveEvent(service.getName()));
-                base.getNode().sendPacketToAll(new ServiceRemovePacket(service.getName()));
-                base.getServiceManager().getAllCachedServices().remove(service);
+                // removed before it is published, a snapshot taken in between already lacks it
+                base.getServiceManager().getServiceRegistry().remove(service);
+                this.publish(new ServiceRemovePacket(service.getName()));
                 service.stop();
                 base.getLogger().log("§7The service '§b" + service.getName() + "§7' has §cdisconnected§8.");
             }, () ->
-                base.getLogger().log("§7Service §b" + client.name() + " §cdisconnected §7but doesn't exist!", LogType.WARNING));
+                base.getLogger().log("§7Service §b" + name + " §cdisconnected §7but doesn't exist!", LogType.WARNING));
     }
 
 }
@@ -2,6 +2,7 @@ package de.polocloud.base.node;
 
 import de.polocloud.api.network.packet.QueryPacket;
 import de.polocloud.api.network.packet.RedirectPacket;
+import de.polocloud.api.network.packet.init.CacheSyncRequestPacket;
 import de.polocloud.api.network.packet.service.ServiceAddPacket;
 import de.polocloud.api.network.packet.service.ServiceRemovePacket;
 import de.polocloud.base.Base;
@@ -14,37 +15,42 @@ public final class BaseNodeNetwork {
         final var serviceManager = Base.getInstance().getServiceManager();
 
         packetHandler.registerPacketListener(QueryPacket.class, (channelHandlerContext, packet) -> {
-            final var connectedClient = Base.getInstance().getNode().getClient(channelHandlerContext.channel());
+            final var node = Base.getInstance().getNode();
 
-            //send to all services as not query packet
-            Base.getInstance().getNode().getServices().stream()
-                .filter(it -> !it.equals(connectedClient)).forEach(it -> it.sendPacket(packet.getPacket()));
-
-            if (packet.getState() == QueryPacket.QueryState.FIRST_RESPONSE) {
-                //send to all another nodes
-                Base.getInstance().getNode()
-                    .sendPacketToType(new QueryPacket(packet.getPacket(), QueryPacket.QueryState.SECOND_RESPONSE), NetworkType.NODE);
-            }
-            //call local packet is communing
+            // handled once per message, the mesh forwards it to the other nodes while it has hops left
+            if (!node.getNodeMesh().receive(packet, channelHandlerContext.channel())) return;
+
+            //call local packet is communing, applied before it is numbered so a snapshot never misses a published change
             packetHandler.call(channelHandlerContext, packet.getPacket());
+
+            //send to all services as not query packet
+            node.getCacheUpdateLog().publish(packet.getPacket(), node.getClient(channelHandlerContext.channel()));
         });
 
         packetHandler.registerPacketListener(RedirectPacket.class, (channelHandlerContext, packet) ->
              Base.getInstance().getServiceManager().getService(packet.getClient()).ifPresent(it -> {
-                if (it.getGroup().getNode().equalsIgnoreCase(Base.getInstance().getNode().getName())) {
-                    Base.getInstance().getNode().getClient(it.getName())
-                        .ifPresent(service -> service.sendPacket(packet.getPacket()));
+                final var node = Base.getInstance().getNode();
+                if (it.getGroup().getNode().equalsIgnoreCase(node.getName())) {
+                    final var service = node.getClientOrNull(it.getName());
+                    if (service != null) service.sendPacket(packet.getPacket());
                 } else {
-                    Base.getInstance().getNode().getClient(it.getGroup().getNode())
-                        .ifPresent(node -> node.sendPacket(new RedirectPacket(packet.getClient(), packet)));
+                    // only packets of own services are forwarded, so nodes with different caches can not bounce it
+                    final var origin = node.getClient(channelHandlerContext.channel());
+                    if (origin != null && origin.networkType() == NetworkType.WRAPPER) node.getNodeMesh().sendPacket(it.getGroup().getNode(), packet);
                 }
             }));
 
         packetHandler.registerPacketListener(ServiceRemovePacket.class, (channelHandlerContext, packet) ->
-            serviceManager.getAllCachedServices().remove(serviceManager.getServiceByNameOrNull(packet.getService())));
+            serviceManager.getServiceRegistry().remove(serviceManager.getServiceByNameOrNull(packet.getService())));
+
+        packetHandler.registerPacketListener(CacheSyncRequestPacket.class, (channelHandlerContext, packet) -> {
+            final var node = Base.getInstance().getNode();
+            final var client = node.getClient(channelHandlerContext.channel());
+            if (client != null) node.getCacheUpdateLog().synchronize(client, packet.getEpoch(), packet.getSequence());
+        });
 
         packetHandler.registerPacketListener(ServiceAddPacket.class, (ctx, packet) ->
-            serviceManager.getAllCachedServices().add(packet.getService()));
+            serviceManager.getServiceRegistry().add(packet.getService()));
 
     }
 
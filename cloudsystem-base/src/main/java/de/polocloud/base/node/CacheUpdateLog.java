@@ -0,0 +1,104 @@
+package de.polocloud.base.node;
+
+import de.polocloud.api.network.packet.init.CacheDeltaPacket;
+import de.polocloud.api.network.packet.init.CacheInitPacket;
+import de.polocloud.base.Base;
+import de.polocloud.network.NetworkType;
+import de.polocloud.network.packet.Packet;
+import de.polocloud.network.server.client.ConnectedClient;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * numbers every cache mutation which is sent to the services of this node and keeps the latest ones,
+ * so a service can catch up with the changes since its last sequence instead of a full snapshot
+ */
+public final class CacheUpdateLog {
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    // changes on every node start, sequences of an older run can not be replayed
+    private final long epoch;
+    private final Entry[] entries;
+    private long sequence;
+
+    public CacheUpdateLog() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public CacheUpdateLog(final int capacity) {
+        this.epoch = ThreadLocalRandom.current().nextLong();
+        this.entries = new Entry[capacity];
+    }
+
+    /**
+     * sends a cache mutation to all services, it has to be applied to the caches of this node before,
+     * a snapshot may then contain a mutation twice but never number one it does not contain
+     * @param packet the mutation
+     */
+    public void publish(final @NotNull Packet packet) {
+        this.publish(packet, null);
+    }
+
+    /**
+     * sends a cache mutation to all services, the origin already applied it and only advances its sequence
+     * @param packet the mutation
+     * @param origin the client the mutation comes from
+     */
+    public synchronized void publish(final @NotNull Packet packet, final @Nullable ConnectedClient origin) {
+        final var entry = new Entry(++this.sequence, packet, origin == null ? null : origin.name());
+        this.entries[(int) (entry.sequence() % this.entries.length)] = entry;
+
+        // sent while holding the lock, so every channel gets the sequences in order
+        final var node = Base.getInstance().getNode();
+        if (origin == null || origin.networkType() != NetworkType.WRAPPER) {
+            node.sendPacketToType(new CacheDeltaPacket(entry.sequence(), packet), NetworkType.WRAPPER);
+        } else {
+            node.sendPacketToType(new CacheDeltaPacket(entry.sequence(), packet), NetworkType.WRAPPER, origin.channel());
+            origin.sendPacket(new CacheDeltaPacket(entry.sequence(), null));
+        }
+    }
+
+    /**
+     * sends the changes after the given sequence or a snapshot if they are not available anymore
+     * @param client the client to synchronize
+     * @param epoch the epoch the sequence belongs to
+     * @param since the last sequence the client applied
+     */
+    public synchronized void synchronize(final @NotNull ConnectedClient client, final long epoch, final long since) {
+        if (epoch == this.epoch && since >= 0 && since <= this.sequence && this.sequence - since <= this.entries.length) {
+            for (var sequence = since + 1; sequence <= this.sequence; sequence++) {
+                final var entry = this.entries[(int) (sequence % this.entries.length)];
+                client.sendPacket(new CacheDeltaPacket(sequence, client.name().equals(entry.origin()) ? null : entry.packet()));
+            }
+            return;
+        }
+        final var base = Base.getInstance();
+        this.sendSnapshot(client, CacheInitPacket.Stage.GROUPS, new ArrayList<>(base.getGroupManager().getAllCachedServiceGroups()));
+        this.sendSnapshot(client, CacheInitPacket.Stage.SERVICES, new ArrayList<>(base.getServiceManager().getAllCachedServices()));
+        this.sendSnapshot(client, CacheInitPacket.Stage.PLAYERS, new ArrayList<>(base.getPlayerManager().getPlayers()));
+    }
+
+    private void sendSnapshot(final ConnectedClient client, final CacheInitPacket.Stage stage, final List<?> entries) {
+        // bounded chunks, neither side has to encode or apply the whole cache at once
+        var index = 0;
+        do {
+            final var end = Math.min(index + CacheInitPacket.CHUNK_SIZE, entries.size());
+            client.sendPacket(new CacheInitPacket(this.epoch, this.sequence, stage, index == 0, end == entries.size(),
+                entries.subList(index, end)));
+            index = end;
+        } while (index < entries.size());
+    }
+
+    public synchronized long getSequence() {
+        return this.sequence;
+    }
+
+    private record Entry(long sequence, Packet packet, @Nullable String origin) {
+    }
+
+}
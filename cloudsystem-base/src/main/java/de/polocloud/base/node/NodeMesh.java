@@ -0,0 +1,193 @@
+package de.polocloud.base.node;
+
+import de.polocloud.api.network.packet.QueryPacket;
+import de.polocloud.base.Base;
+import de.polocloud.base.config.CloudConfiguration;
+import de.polocloud.base.config.NodeConfiguration;
+import de.polocloud.network.NetworkType;
+import de.polocloud.network.client.NettyClient;
+import de.polocloud.network.packet.Packet;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * the connections to the other nodes of the cluster, every configured node is dialed and reconnected
+ * two nodes which dial each other have two connections, packets only use the one opened by the node with the lower name
+ * cache mutations travel as {@link QueryPacket}s, every node handles a message id once and forwards it while it has hops left
+ */
+public final class NodeMesh {
+
+    private static final int SEEN_MESSAGES = 8192;
+
+    private final BaseNode node;
+    private final Map<String, PeerClient> peers;
+    private final SeenMessages seenMessages;
+    private final int hopLimit;
+    private final int gossipFanout;
+
+    public NodeMesh(final @NotNull BaseNode node, final @NotNull CloudConfiguration cloudConfiguration) {
+        this.node = node;
+        this.peers = new ConcurrentHashMap<>();
+        this.seenMessages = new SeenMessages(SEEN_MESSAGES);
+        this.gossipFanout = cloudConfiguration.getQueryGossipFanout();
+        final var nodeConfigurations = cloudConfiguration.getConnectedNodes();
+        if (this.gossipFanout > 0 && cloudConfiguration.getQueryHopLimit() <= 0) {
+            // enough rounds for the fanout to reach every node, plus one against unlucky picks
+            final var nodes = nodeConfigurations.size() + 1;
+            this.hopLimit = (int) Math.ceil(Math.log(nodes) / Math.log(Math.max(2, this.gossipFanout))) + 1;
+        } else {
+            this.hopLimit = Math.max(0, cloudConfiguration.getQueryHopLimit());
+        }
+        for (final var nodeConfiguration : nodeConfigurations) {
+            if (nodeConfiguration.getNodeName().equalsIgnoreCase(node.getName())) continue;
+            final var peer = new PeerClient(nodeConfiguration.getNodeName());
+            if (this.peers.putIfAbsent(this.toKey(peer.peerName), peer) != null) continue;
+            // an unreachable node must not delay the start, the client keeps reconnecting on its own
+            CompletableFuture.runAsync(() -> peer.connect(nodeConfiguration.getHostname(), nodeConfiguration.getPort()));
+        }
+    }
+
+    /**
+     * sends a cache mutation of this node into the cluster
+     */
+    public void publish(final @NotNull Packet packet) {
+        final var queryPacket = new QueryPacket(packet, QueryPacket.QueryState.SECOND_RESPONSE,
+            ThreadLocalRandom.current().nextLong(), this.hopLimit);
+        this.seenMessages.add(queryPacket.getMessageId());
+        this.forward(queryPacket, null);
+    }
+
+    /**
+     * handles a message received from a service or node
+     * @param channel the connection the message came through
+     * @return false if the message was already handled before
+     */
+    public boolean receive(final @NotNull QueryPacket packet, final @NotNull Channel channel) {
+        if (!this.seenMessages.add(packet.getMessageId())) return false;
+        if (packet.getState() == QueryPacket.QueryState.FIRST_RESPONSE) {
+            // a service of this node, the message starts here
+            this.forward(packet.forward(this.hopLimit), null);
+        } else if (packet.getHops() > 0) {
+            this.forward(packet.forward(packet.getHops() - 1), this.getNodeName(channel));
+        }
+        return true;
+    }
+
+    private void forward(final QueryPacket packet, final @Nullable String except) {
+        if (this.gossipFanout <= 0) {
+            this.sendPacket(packet, except);
+            return;
+        }
+        // gossip, only a random part of the nodes gets it, they pass it on in the next hop
+        final var nodes = new ArrayList<>(this.getConnectedNodes());
+        if (except != null) nodes.removeIf(except::equalsIgnoreCase);
+        Collections.shuffle(nodes, ThreadLocalRandom.current());
+        for (final var nodeName : nodes.subList(0, Math.min(this.gossipFanout, nodes.size()))) this.sendPacket(nodeName, packet);
+    }
+
+    /**
+     * sends a packet once to every connected node
+     */
+    public void sendPacket(final @NotNull Packet packet) {
+        this.sendPacket(packet, null);
+    }
+
+    /**
+     * sends a packet once to every connected node
+     * @param except the name of the node the packet comes from, it does not get it back
+     */
+    public void sendPacket(final @NotNull Packet packet, final @Nullable String except) {
+        // inbound connections are skipped for nodes which are reached through the preferred outbound connection
+        this.node.sendPacketToType(packet, NetworkType.NODE, channel -> {
+            final var client = this.node.getClient(channel);
+            return client != null && !client.name().equalsIgnoreCase(except) && this.getOutbound(client.name()) == null;
+        });
+        for (final var peer : this.peers.values()) {
+            if (peer.peerName.equalsIgnoreCase(except) || !this.usesOutbound(peer)) continue;
+            peer.sendPacket(packet);
+        }
+    }
+
+    /**
+     * sends a packet to a single node
+     * @return if the node is connected
+     */
+    public boolean sendPacket(final @NotNull String nodeName, final @NotNull Packet packet) {
+        final var outbound = this.getOutbound(nodeName);
+        if (outbound != null) {
+            outbound.sendPacket(packet);
+            return true;
+        }
+        final var client = this.node.getClientOrNull(nodeName);
+        if (client == null || client.networkType() != NetworkType.NODE) return false;
+        client.sendPacket(packet);
+        return true;
+    }
+
+    private List<String> getConnectedNodes() {
+        final var names = new HashMap<String, String>();
+        this.node.getClients(NetworkType.NODE).forEach(client -> names.putIfAbsent(this.toKey(client.name()), client.name()));
+        this.peers.values().stream().filter(NettyClient::isAuthenticated)
+            .forEach(peer -> names.putIfAbsent(this.toKey(peer.peerName), peer.peerName));
+        return new ArrayList<>(names.values());
+    }
+
+    private @Nullable String getNodeName(final Channel channel) {
+        final var client = this.node.getClient(channel);
+        if (client != null) return client.name();
+        for (final var peer : this.peers.values()) {
+            if (peer.getChannel() == channel) return peer.peerName;
+        }
+        return null;
+    }
+
+    public void close() {
+        this.peers.values().forEach(NettyClient::close);
+    }
+
+    private @Nullable PeerClient getOutbound(final String nodeName) {
+        final var peer = this.peers.get(this.toKey(nodeName));
+        return peer != null && this.usesOutbound(peer) ? peer : null;
+    }
+
+    private boolean usesOutbound(final PeerClient peer) {
+        if (!peer.isAuthenticated()) return false;
+        // both directions are open, the connection opened by the lower name wins on both sides
+        return this.node.getName().compareToIgnoreCase(peer.peerName) < 0 || this.node.getClientOrNull(peer.peerName) == null;
+    }
+
+    private String toKey(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    private final class PeerClient extends NettyClient {
+
+        private final String peerName;
+
+        private PeerClient(final String peerName) {
+            super(Base.getInstance().getPacketHandler(), NodeMesh.this.node.getName(), NetworkType.NODE);
+            this.peerName = peerName;
+            this.setTransport(NodeMesh.this.node.getTransport());
+            this.setCompressionSettings(NetworkType.NODE, NodeMesh.this.node.getCompressionSettings(NetworkType.NODE));
+        }
+
+        @Override
+        public void onAuthenticated(ChannelHandlerContext channelHandlerContext) {
+            Base.getInstance().getLogger().log("§7This node §aconnected §7to the node '§b" + this.peerName + "§7'.");
+        }
+
+    }
+
+}
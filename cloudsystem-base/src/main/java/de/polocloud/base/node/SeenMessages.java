@@ -0,0 +1,29 @@
+package de.polocloud.base.node;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * the ids of the latest messages this node handled, the oldest ids are forgotten once the capacity is reached
+ */
+final class SeenMessages {
+
+    private final Map<Long, Boolean> messageIds;
+
+    SeenMessages(final int capacity) {
+        this.messageIds = new LinkedHashMap<>(capacity, 0.75f) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return this.size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * @return false if the message was already seen
+     */
+    synchronized boolean add(final long messageId) {
+        return this.messageIds.put(messageId, Boolean.TRUE) == null;
+    }
+
+}
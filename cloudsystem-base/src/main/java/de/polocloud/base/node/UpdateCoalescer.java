@@ -0,0 +1,96 @@
+package de.polocloud.base.node;
+
+import de.polocloud.network.packet.DroppablePacket;
+import de.polocloud.network.packet.Packet;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * collects the state updates of services and groups for a short window and only sends the latest one per entity,
+ * the entities are sent in the order of their last update within the window, so A1, B1, A2 is sent as B1, A2
+ */
+public final class UpdateCoalescer {
+
+    private final long windowMillis;
+    private final Consumer<Packet> sender;
+    private final ScheduledExecutorService scheduler;
+    // guarded by this, only held while the pending updates are changed
+    private final Map<Object, Packet> pendingUpdates;
+    private boolean flushScheduled;
+    // held while sending, so the updates of two flushes never interleave
+    private final Object sendLock;
+
+    /**
+     * @param windowMillis the time an update is held back, 0 sends every update immediately
+     * @param sender sends an update to the other nodes and the services
+     */
+    public UpdateCoalescer(final long windowMillis, final @NotNull Consumer<Packet> sender) {
+        this.windowMillis = windowMillis;
+        this.sender = sender;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(new DefaultThreadFactory("PoloCloud-Updates", true));
+        this.pendingUpdates = new LinkedHashMap<>();
+        this.sendLock = new Object();
+    }
+
+    /**
+     * sends the update after the window, a newer update for the same entity replaces it
+     * @param packet the update, a packet without coalescing key is sent after the pending updates
+     */
+    public void send(final @NotNull DroppablePacket packet) {
+        final var key = packet.getCoalescingKey();
+        if (this.windowMillis <= 0 || key == null) {
+            synchronized (this.sendLock) {
+                this.flush();
+                this.sender.accept(packet);
+            }
+            return;
+        }
+        synchronized (this) {
+            // moved to the end, the entity is sent at the position of its latest update
+            this.pendingUpdates.remove(key);
+            this.pendingUpdates.put(key, packet);
+            if (!this.flushScheduled) {
+                this.flushScheduled = true;
+                this.scheduler.schedule(this::flush, this.windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * sends all pending updates, called before other mutations so they never overtake an update
+     * returns after the updates of a flush running at the same time are sent as well
+     */
+    public void flush() {
+        synchronized (this.sendLock) {
+            final List<Packet> packets;
+            synchronized (this) {
+                this.flushScheduled = false;
+                if (this.pendingUpdates.isEmpty()) return;
+                packets = List.copyOf(this.pendingUpdates.values());
+                this.pendingUpdates.clear();
+            }
+            // sent without the lock of the pending updates, new updates are collected meanwhile
+            for (final var packet : packets) {
+                try {
+                    this.sender.accept(packet);
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    public void close() {
+        this.flush();
+        this.scheduler.shutdown();
+    }
+
+}
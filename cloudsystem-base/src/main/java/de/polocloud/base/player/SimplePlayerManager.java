@@ -1,38 +1,31 @@
 package de.polocloud.base.player;
 
-import de.polocloud.api.network.packet.QueryPacket;
 import de.polocloud.api.network.packet.player.CloudPlayerUpdatePacket;
 import de.polocloud.base.Base;
 import de.polocloud.api.event.player.CloudPlayerUpdateEvent;
 import de.polocloud.api.network.packet.player.CloudPlayerMessagePacket;
 import de.polocloud.api.player.CloudPlayer;
 import de.polocloud.api.player.impl.AbstractPlayerManager;
-import de.polocloud.network.NetworkType;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
+import java.util.Collection;
 import java.util.UUID;
-import java.util.concurrent.ConcurrentHashMap;
 
 public final class SimplePlayerManager extends AbstractPlayerManager {
 
-    public SimplePlayerManager() {
-        super.players = new ConcurrentHashMap<>();
-    }
-
     @Override
-    public @NotNull List<CloudPlayer> getAllServicePlayers() {
+    public @NotNull Collection<CloudPlayer> getAllServicePlayers() {
         return this.getPlayers();
     }
 
     @Override
     public void registerCloudPlayer(final @NotNull CloudPlayer cloudPlayer) {
-        this.getAllServicePlayers().add(cloudPlayer);
+        this.addPlayer(cloudPlayer);
     }
 
     @Override
     public void unregisterCloudPlayer(final @NotNull UUID uuid) {
-        this.players.remove(uuid);
+        this.removePlayer(uuid);
     }
 
     @Override
@@ -47,11 +40,8 @@ public final class SimplePlayerManager extends AbstractPlayerManager {
 
     @Override
     public void updateCloudPlayer(@NotNull CloudPlayer cloudPlayer, @NotNull CloudPlayerUpdateEvent.UpdateReason updateReason) {
-        final var packet = new CloudPlayerUpdatePacket(cloudPlayer, updateReason);
-        // update all other nodes and this connected services
-        Base.getInstance().getNode().sendPacketToType(new QueryPacket(packet, QueryPacket.QueryState.SECOND_RESPONSE), NetworkType.NODE);
-        // update own service caches
-        Base.getInstance().getNode().sendPacketToType(packet, NetworkType.WRAPPER);
+        // update all other nodes and this connected services, each update carries its own reason
+        Base.getInstance().getNode().publish(new CloudPlayerUpdatePacket(cloudPlayer, updateReason));
         // call event
         Base.getInstance().getEventHandler().call(new CloudPlayerUpdateEvent(cloudPlayer, updateReason));
     }
@@ -49,7 +49,7 @@ public class LocalService implements CloudService {
 
     private Process process;
 
-    private boolean screen = false;
+    private volatile boolean screen = false;
 
     private long startTime;
 
@@ -71,6 +71,13 @@ public class LocalService implements CloudService {
         }
     }
 
+    @Override
+    public void setState(final @NotNull String state) {
+        final var oldState = this.state;
+        this.state = state;
+        CloudAPI.getInstance().getServiceManager().getServiceRegistry().updateState(this, oldState);
+    }
+
     @SneakyThrows
     public void start() {
         this.setState(ServiceState.STARTING);
@@ -182,6 +189,7 @@ public class LocalService implements CloudService {
         this.process = new ProcessBuilder(this.arguments())
             .directory(this.workingDirectory)
             .start();
+        Base.getInstance().getWorkerThread().watch(this, this.process);
     }
 
     @Override
@@ -206,7 +214,7 @@ public class LocalService implements CloudService {
 
     @Override
     public void executeCommand(@NotNull String command) {
-        if (this.process != null) {
+        if (this.process != null && this.process.isAlive()) {
             final var outputStream = this.process.getOutputStream();
             try {
                 outputStream.write((command + "\n").getBytes(StandardCharsets.UTF_8));
@@ -370,9 +378,12 @@ public class LocalService implements CloudService {
         CloudAPI.getInstance().getLogger().log("§7Downloading of (§3" + this.getName() + "§7)§a successfully §7completed.");
     }
 
-    public CompletableFuture<Integer> getMemory(){
-        CompletableFuture<Integer> result = new CompletableFuture<>();
-        sendPacket(new ResponsePacket(new ServiceMemoryRequest(), packet -> result.complete(((ServiceMemoryRequest) packet).getMemory())));
-        return result;
+    public CompletableFuture<Integer> getMemory() {
+        return Base.getInstance().getNode().getClient(this.getName())
+            .map(client -> Base.getInstance().getPacketHandler().getRequestManager()
+                .<ServiceMemoryRequest>request(client.channel(), id -> new ResponsePacket(id, new ServiceMemoryRequest()))
+                .thenApply(ServiceMemoryRequest::getMemory))
+            .orElseGet(() -> CompletableFuture.failedFuture(new IllegalStateException("The service " + this.getName() + " is not connected")));
     }
+
 }
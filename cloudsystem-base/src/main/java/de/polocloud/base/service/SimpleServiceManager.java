@@ -2,15 +2,14 @@ package de.polocloud.base.service;
 
 import de.polocloud.api.CloudAPI;
 import de.polocloud.api.event.service.CloudServiceUpdateEvent;
-import de.polocloud.api.network.packet.QueryPacket;
 import de.polocloud.api.network.packet.ResponsePacket;
 import de.polocloud.api.network.packet.service.ServiceCopyRequestPacket;
 import de.polocloud.api.network.packet.service.ServiceRequestShutdownPacket;
 import de.polocloud.api.network.packet.service.ServiceUpdatePacket;
 import de.polocloud.api.service.CloudService;
 import de.polocloud.api.service.ServiceManager;
+import de.polocloud.api.service.ServiceRegistry;
 import de.polocloud.base.Base;
-import de.polocloud.network.NetworkType;
 import de.polocloud.network.packet.Packet;
 import de.polocloud.network.packet.PacketHandler;
 import org.apache.commons.io.FileUtils;
@@ -21,20 +20,18 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.jar.JarInputStream;
 
 public final class SimpleServiceManager implements ServiceManager {
 
     private final Path wrapperPath;
     private final Path pluginPath;
-    private List<CloudService> allCachedServices;
+    private final ServiceRegistry serviceRegistry;
     private String wrapperMainClass;
 
     public SimpleServiceManager() {
-        this.allCachedServices = new CopyOnWriteArrayList<>();
+        this.serviceRegistry = new ServiceRegistry();
 
         final var storageDirectory = new File("storage/jars");
         this.wrapperPath = new File(storageDirectory, "wrapper.jar").toPath().toAbsolutePath();
@@ -57,7 +54,8 @@ public final class SimpleServiceManager implements ServiceManager {
             e.printStackTrace();
         }
 
-        Base.getInstance().getPacketHandler().registerPacketListener(ServiceCopyRequestPacket.class, (ctx, packet) ->
+        // copying and stopping block, they run one after another per service instead of on the event loop
+        Base.getInstance().getPacketHandler().registerPacketListener(ServiceCopyRequestPacket.class, ServiceCopyRequestPacket::getService, (ctx, packet) ->
             CloudAPI.getInstance().getServiceManager().getService(packet.getService()).ifPresent(cloudService -> {
                 final var template = new File("templates/" + cloudService.getGroup().getTemplate());
                 final var localService = (LocalService) cloudService;
@@ -76,26 +74,20 @@ public final class SimpleServiceManager implements ServiceManager {
                 Base.getInstance().getEventHandler().call(new CloudServiceUpdateEvent(service));
             }));
 
-        Base.getInstance().getPacketHandler().registerPacketListener(ServiceRequestShutdownPacket.class,
+        Base.getInstance().getPacketHandler().registerPacketListener(ServiceRequestShutdownPacket.class, ServiceRequestShutdownPacket::getService,
             (channelHandlerContext, packet) ->
                 Objects.requireNonNull(Base.getInstance().getServiceManager()
                     .getServiceByNameOrNull(packet.getService())).stop());
 
-        Base.getInstance().getPacketHandler().registerPacketListener(ResponsePacket.class, (channelHandlerContext, responsePacket) -> {
-            CloudAPI.getInstance().getPacketHandler().getResponses().get(responsePacket.getUuid()).accept(responsePacket.getPacket());
-        });
+        Base.getInstance().getPacketHandler().registerPacketListener(ResponsePacket.class, (channelHandlerContext, responsePacket) ->
+            Base.getInstance().getPacketHandler().getRequestManager().complete(responsePacket.getId(), responsePacket.getPacket()));
 
     }
 
     @NotNull
     @Override
-    public List<CloudService> getAllCachedServices() {
-        return this.allCachedServices;
-    }
-
-    @Override
-    public void setAllCachedServices(@NotNull List<CloudService> services) {
-        this.allCachedServices = services;
+    public ServiceRegistry getServiceRegistry() {
+        return this.serviceRegistry;
     }
 
     public void start(final CloudService service) {
@@ -108,8 +100,9 @@ public final class SimpleServiceManager implements ServiceManager {
     }
 
     public void sendPacketToService(final @NotNull CloudService service, final @NotNull Packet packet) {
-        Base.getInstance().getNode().getClients().stream()
-            .filter(it -> it.name().equals(service.getName())).findAny().ifPresent(it -> it.sendPacket(packet));
+        final var client = Base.getInstance().getNode().getClientOrNull(service.getName());
+        // the client lookup ignores the case, the service name has to match exactly like before
+        if (client != null && client.name().equals(service.getName())) client.sendPacket(packet);
     }
 
     @Override
@@ -119,11 +112,8 @@ public final class SimpleServiceManager implements ServiceManager {
 
     @Override
     public void updateService(@NotNull CloudService service) {
-        final var packet = new ServiceUpdatePacket(service);
-        //update all other nodes and this connected services
-        Base.getInstance().getNode().sendPacketToType(new QueryPacket(packet, QueryPacket.QueryState.SECOND_RESPONSE), NetworkType.NODE);
-        //update own service caches
-        Base.getInstance().getNode().sendPacketToType(packet, NetworkType.WRAPPER);
+        // only the latest state of a service is sent within the coalescing window
+        Base.getInstance().getNode().getUpdateCoalescer().send(new ServiceUpdatePacket(service));
     }
 
     public Path getWrapperPath() {
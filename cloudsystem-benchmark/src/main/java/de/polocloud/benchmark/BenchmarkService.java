@@ -0,0 +1,119 @@
+package de.polocloud.benchmark;
+
+import de.polocloud.api.groups.ServiceGroup;
+import de.polocloud.api.service.CloudService;
+import de.polocloud.api.service.ServiceRegistry;
+import de.polocloud.network.packet.Packet;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * a service without cloud api, it only keeps its registry up to date like the real services
+ */
+final class BenchmarkService implements CloudService {
+
+    private final ServiceGroup group;
+    private final int serviceId;
+    private final String name;
+    private final String node;
+    private final ServiceRegistry registry;
+    private String state;
+
+    BenchmarkService(final ServiceGroup group, final int serviceId, final String node, final String state, final ServiceRegistry registry) {
+        this.group = group;
+        this.serviceId = serviceId;
+        this.name = group.getName() + "-" + serviceId;
+        this.node = node;
+        this.state = state;
+        this.registry = registry;
+    }
+
+    @Override
+    public @NotNull String getName() {
+        return this.name;
+    }
+
+    @Override
+    public int getServiceId() {
+        return this.serviceId;
+    }
+
+    @Override
+    public int getPort() {
+        return 30000 + this.serviceId;
+    }
+
+    @Override
+    public @NotNull String getHostName() {
+        return "127.0.0.1";
+    }
+
+    @Override
+    public @NotNull String getNode() {
+        return this.node;
+    }
+
+    @Override
+    public @NotNull ServiceGroup getGroup() {
+        return this.group;
+    }
+
+    @Override
+    public void setState(@NotNull String state) {
+        final var oldState = this.state;
+        this.state = state;
+        if (this.registry != null) this.registry.updateState(this, oldState);
+    }
+
+    @Override
+    public @NotNull String getState() {
+        return this.state;
+    }
+
+    @Override
+    public int getMaxPlayers() {
+        return 50;
+    }
+
+    @Override
+    public void setMaxPlayers(int slots) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void edit(@NotNull Consumer<CloudService> serviceConsumer) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public @NotNull String getMotd() {
+        return "";
+    }
+
+    @Override
+    public void setMotd(@NotNull String motd) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void sendPacket(@NotNull Packet packet) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void executeCommand(@NotNull String command) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void stop() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void update() {
+        throw new UnsupportedOperationException();
+    }
+
+}
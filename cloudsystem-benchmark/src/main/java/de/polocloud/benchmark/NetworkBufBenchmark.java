@@ -0,0 +1,108 @@
+package de.polocloud.benchmark;
+
+import de.polocloud.network.NetworkType;
+import de.polocloud.network.packet.NetworkBuf;
+import de.polocloud.network.packet.auth.NodeHandshakeAuthenticationPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * writes and reads the content of a handshake, once in the old format with a 4 byte string length
+ * and the enum class name, and once in the current format with varint lengths and the enum table
+ * the bytes per packet of both formats are printed when a trial starts
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NetworkBufBenchmark {
+
+    private static final String NAME = "Lobby-1";
+
+    private ByteBuf buffer;
+    private ByteBuf legacyFrame;
+    private ByteBuf compactFrame;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        this.buffer = Unpooled.buffer(256);
+        this.legacyFrame = Unpooled.buffer();
+        writeLegacy(this.legacyFrame, NAME, NetworkType.WRAPPER, 256);
+        this.compactFrame = Unpooled.buffer();
+        new NodeHandshakeAuthenticationPacket(NAME, NetworkType.WRAPPER, 256).write(new NetworkBuf(this.compactFrame));
+        System.out.println("bytes per packet: legacy " + this.legacyFrame.readableBytes() + ", compact " + this.compactFrame.readableBytes());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        this.buffer.release();
+        this.legacyFrame.release();
+        this.compactFrame.release();
+    }
+
+    @Benchmark
+    public int writeLegacy() {
+        writeLegacy(this.buffer.clear(), NAME, NetworkType.WRAPPER, 256);
+        return this.buffer.writerIndex();
+    }
+
+    @Benchmark
+    public int writeCompact() {
+        new NodeHandshakeAuthenticationPacket(NAME, NetworkType.WRAPPER, 256).write(new NetworkBuf(this.buffer.clear()));
+        return this.buffer.writerIndex();
+    }
+
+    @Benchmark
+    public Object readLegacy() throws ClassNotFoundException {
+        final var frame = this.legacyFrame.readerIndex(0);
+        final var type = frame.readBoolean() ? null : Class.forName(readLegacyString(frame)).getEnumConstants()[new NetworkBuf(frame).readVarInt()];
+        final var name = readLegacyString(frame);
+        return new Object[]{type, name, new NetworkBuf(frame).readVarInt()};
+    }
+
+    @Benchmark
+    public NodeHandshakeAuthenticationPacket readCompact() {
+        final var packet = new NodeHandshakeAuthenticationPacket();
+        packet.read(new NetworkBuf(this.compactFrame.readerIndex(0)));
+        return packet;
+    }
+
+    // the format of NetworkBuf before the varint lengths and the enum table
+    private static void writeLegacy(final ByteBuf byteBuf, final String name, final Enum<?> type, final int dictionaryCapacity) {
+        byteBuf.writeBoolean(false);
+        writeLegacyString(byteBuf, type.getDeclaringClass().getName());
+        new NetworkBuf(byteBuf).writeVarInt(type.ordinal());
+        writeLegacyString(byteBuf, name);
+        new NetworkBuf(byteBuf).writeVarInt(dictionaryCapacity);
+    }
+
+    private static void writeLegacyString(final ByteBuf byteBuf, final String string) {
+        final var bytes = string.getBytes(StandardCharsets.UTF_8);
+        byteBuf.writeInt(bytes.length);
+        byteBuf.writeBytes(bytes);
+    }
+
+    private static String readLegacyString(final ByteBuf byteBuf) {
+        final var bytes = new byte[byteBuf.readInt()];
+        byteBuf.readBytes(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+}
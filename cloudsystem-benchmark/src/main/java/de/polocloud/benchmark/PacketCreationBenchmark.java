@@ -0,0 +1,69 @@
+package de.polocloud.benchmark;
+
+import de.polocloud.network.NetworkType;
+import de.polocloud.network.packet.NetworkBuf;
+import de.polocloud.network.packet.Packet;
+import de.polocloud.network.packet.PacketHandler;
+import de.polocloud.network.packet.auth.NodeHandshakeAuthenticationPacket;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * decodes an inbound packet the way the decoder did before the factory table, with a reflective constructor lookup
+ * per packet, and through the factory table of the packet handler
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PacketCreationBenchmark {
+
+    private PacketHandler packetHandler;
+    private ByteBuf frame;
+
+    @Setup
+    public void setup() {
+        this.packetHandler = new PacketHandler(NodeHandshakeAuthenticationPacket.class);
+        this.frame = Unpooled.buffer();
+        final var networkBuf = new NetworkBuf(this.frame);
+        networkBuf.writeInt(this.packetHandler.getPacketId(NodeHandshakeAuthenticationPacket.class));
+        new NodeHandshakeAuthenticationPacket("Lobby-1", NetworkType.WRAPPER, 256).write(networkBuf);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.frame.release();
+    }
+
+    @Benchmark
+    public Packet reflective() throws ReflectiveOperationException {
+        final var networkBuf = new NetworkBuf(this.frame.readerIndex(0));
+        final var packet = this.packetHandler.getPacketClass(networkBuf.readInt()).getDeclaredConstructor().newInstance();
+        packet.read(networkBuf);
+        return packet;
+    }
+
+    @Benchmark
+    public Packet factory() {
+        final var networkBuf = new NetworkBuf(this.frame.readerIndex(0));
+        final var packet = this.packetHandler.createPacket(networkBuf.readInt());
+        packet.read(networkBuf);
+        return packet;
+    }
+
+}
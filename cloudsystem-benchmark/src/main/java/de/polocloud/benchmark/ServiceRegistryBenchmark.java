@@ -0,0 +1,128 @@
+package de.polocloud.benchmark;
+
+import de.polocloud.api.groups.ServiceGroup;
+import de.polocloud.api.groups.impl.SimpleServiceGroup;
+import de.polocloud.api.service.CloudService;
+import de.polocloud.api.service.ServiceRegistry;
+import de.polocloud.api.service.ServiceState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * the lookups of the service registry against the scans over a copy on write list it replaced,
+ * with 1k and 10k services spread over 20 groups and 3 nodes
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServiceRegistryBenchmark {
+
+    private static final int GROUPS = 20;
+    private static final int NODES = 3;
+
+    @Param({"1000", "10000"})
+    private int services;
+
+    private ServiceRegistry registry;
+    private List<CloudService> legacyServices;
+    private List<BenchmarkService> registered;
+    private ServiceGroup[] groups;
+
+    @Setup
+    public void setup() {
+        this.registry = new ServiceRegistry();
+        this.legacyServices = new CopyOnWriteArrayList<>();
+        this.registered = new ArrayList<>(this.services);
+        this.groups = new ServiceGroup[GROUPS];
+        for (var i = 0; i < GROUPS; i++) {
+            // the version is not needed, it would request the paper api while loading
+            this.groups[i] = new SimpleServiceGroup("Group" + i, "Group" + i, "node-" + (i % NODES), "",
+                512, 50, 1, -1, false, false, false, false, null);
+        }
+        for (var i = 0; i < this.services; i++) {
+            final var group = this.groups[i % GROUPS];
+            final var state = i % 10 == 0 ? ServiceState.STARTING : ServiceState.STARTED;
+            final var service = new BenchmarkService(group, i / GROUPS + 1, group.getNode(), state, this.registry);
+            this.registered.add(service);
+            this.legacyServices.add(service);
+        }
+        this.registry.addAll(this.registered);
+    }
+
+    private BenchmarkService randomService() {
+        return this.registered.get(ThreadLocalRandom.current().nextInt(this.registered.size()));
+    }
+
+    @Benchmark
+    public CloudService getByName() {
+        return this.registry.get(this.randomService().getName());
+    }
+
+    @Benchmark
+    public CloudService legacyGetByName() {
+        final var name = this.randomService().getName();
+        return this.legacyServices.stream().filter(service -> service.getName().equalsIgnoreCase(name)).findAny().orElse(null);
+    }
+
+    @Benchmark
+    public List<CloudService> getByGroup() {
+        return this.registry.getByGroup(this.randomService().getGroup().getName());
+    }
+
+    @Benchmark
+    public List<CloudService> legacyGetByGroup() {
+        final var group = this.randomService().getGroup().getName();
+        return this.legacyServices.stream().filter(service -> service.getGroup().getName().equalsIgnoreCase(group)).toList();
+    }
+
+    @Benchmark
+    public List<CloudService> getByState() {
+        return this.registry.getByState(ServiceState.STARTING);
+    }
+
+    @Benchmark
+    public List<CloudService> legacyGetByState() {
+        return this.legacyServices.stream().filter(service -> service.getState().equalsIgnoreCase(ServiceState.STARTING)).toList();
+    }
+
+    @Benchmark
+    public String updateState() {
+        // the index moves the service and copies the two state lists it touched
+        final var service = this.randomService();
+        service.setState(service.getState().equals(ServiceState.STARTED) ? ServiceState.STARTING : ServiceState.STARTED);
+        return service.getState();
+    }
+
+    @Benchmark
+    public boolean addAndRemove() {
+        final var service = this.randomService();
+        this.registry.remove(service);
+        return this.registry.add(service);
+    }
+
+    @Benchmark
+    public boolean legacyAddAndRemove() {
+        final var service = this.randomService();
+        this.legacyServices.remove(service);
+        return this.legacyServices.add(service);
+    }
+
+}
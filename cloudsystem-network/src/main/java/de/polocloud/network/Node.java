@@ -1,28 +1,39 @@
 package de.polocloud.network;
 
+import de.polocloud.network.codec.CompressionMetrics;
+import de.polocloud.network.handler.BackpressureSettings;
+import de.polocloud.network.handler.CompressionSettings;
+import de.polocloud.network.handler.FlushSettings;
 import de.polocloud.network.packet.PacketHandler;
-import io.netty.channel.EventLoopGroup;
-import io.netty.channel.epoll.Epoll;
-import io.netty.channel.epoll.EpollEventLoopGroup;
-import io.netty.channel.epoll.EpollServerSocketChannel;
-import io.netty.channel.epoll.EpollSocketChannel;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.ServerSocketChannel;
-import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
 public abstract class Node {
 
     protected final PacketHandler packetHandler;
     protected final String name;
     protected final NetworkType networkType;
+    protected final Map<NetworkType, FlushSettings> flushSettings;
+    protected final Map<NetworkType, CompressionSettings> compressionSettings;
+    protected final Map<NetworkType, BackpressureSettings> backpressureSettings;
+    protected final CompressionMetrics compressionMetrics;
+    protected Transport transport;
+    // set while this node holds a reference on its transport, so a second close never releases it again
+    private final AtomicBoolean transportRetained;
 
     protected Node(final PacketHandler packetHandler, final String name, final NetworkType networkType) {
         this.packetHandler = packetHandler;
         this.name = name;
         this.networkType = networkType;
+        this.flushSettings = new EnumMap<>(NetworkType.class);
+        this.compressionSettings = new EnumMap<>(NetworkType.class);
+        this.backpressureSettings = new EnumMap<>(NetworkType.class);
+        this.compressionMetrics = new CompressionMetrics();
+        this.transport = Transport.DEFAULT;
+        this.transportRetained = new AtomicBoolean();
     }
 
     public abstract void connect(@NotNull String host, int port);
@@ -41,20 +52,76 @@ public abstract class Node {
         return this.networkType;
     }
 
-    protected EventLoopGroup newEventLoopGroup() {
-        return this.newEventLoopGroup(0);
+    /**
+     * @param networkType the type of the connection, which is the type of the connecting client
+     * @return the flush settings of the connection type
+     */
+    public FlushSettings getFlushSettings(final @NotNull NetworkType networkType) {
+        return this.flushSettings.getOrDefault(networkType, FlushSettings.DEFAULT);
+    }
+
+    public void setFlushSettings(final @NotNull NetworkType networkType, final @NotNull FlushSettings flushSettings) {
+        this.flushSettings.put(networkType, flushSettings);
+    }
+
+    /**
+     * @param networkType the type of the connection, which is the type of the connecting client
+     * @return the compression settings of the connection type, disabled by default
+     */
+    public CompressionSettings getCompressionSettings(final @NotNull NetworkType networkType) {
+        return this.compressionSettings.getOrDefault(networkType, CompressionSettings.DISABLED);
+    }
+
+    public void setCompressionSettings(final @NotNull NetworkType networkType, final @NotNull CompressionSettings compressionSettings) {
+        this.compressionSettings.put(networkType, compressionSettings);
+    }
+
+    /**
+     * @param networkType the type of the connection, which is the type of the connecting client
+     * @return the outbound limits of the connection type
+     */
+    public BackpressureSettings getBackpressureSettings(final @NotNull NetworkType networkType) {
+        return this.backpressureSettings.getOrDefault(networkType, BackpressureSettings.DEFAULT);
+    }
+
+    public void setBackpressureSettings(final @NotNull NetworkType networkType, final @NotNull BackpressureSettings backpressureSettings) {
+        this.backpressureSettings.put(networkType, backpressureSettings);
+    }
+
+    /**
+     * @return the sizes of all frames this node compressed
+     */
+    public CompressionMetrics getCompressionMetrics() {
+        return this.compressionMetrics;
+    }
+
+    /**
+     * @return the event loops of this node, shared with every node using the same transport
+     */
+    public Transport getTransport() {
+        return this.transport;
     }
 
-    protected EventLoopGroup newEventLoopGroup(final int threads) {
-        return (Epoll.isAvailable() ? new EpollEventLoopGroup(threads) : new NioEventLoopGroup(threads));
+    /**
+     * sets the event loops of this node, only before it connects
+     */
+    public void setTransport(final @NotNull Transport transport) {
+        if (this.transportRetained.get()) throw new IllegalStateException("The transport of a connected node can not be changed");
+        this.transport = transport;
     }
 
-    protected Class<? extends ServerSocketChannel> getServerSocketChannel() {
-        return (Epoll.isAvailable() ? EpollServerSocketChannel.class : NioServerSocketChannel.class);
+    /**
+     * takes the reference of this node on its transport, only once until it is released
+     */
+    protected void retainTransport() {
+        if (this.transportRetained.compareAndSet(false, true)) this.transport.retain();
     }
 
-    protected Class<? extends SocketChannel> getSocketChannel() {
-        return (Epoll.isAvailable() ? EpollSocketChannel.class : NioSocketChannel.class);
+    /**
+     * gives the reference of this node on its transport back, does nothing if it holds none
+     */
+    protected void releaseTransport() {
+        if (this.transportRetained.compareAndSet(true, false)) this.transport.release();
     }
 
 }
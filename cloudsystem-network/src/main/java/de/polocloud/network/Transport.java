@@ -0,0 +1,107 @@
+package de.polocloud.network;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.ServerSocketChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Locale;
+
+/**
+ * the event loops of a process, every server and client using the same transport shares them
+ * the groups are created by the first user and shut down after the last one released them
+ */
+public final class Transport {
+
+    // used by every node which does not get its own transport
+    public static final Transport DEFAULT = new Transport(TransportType.AUTO, 1, 0);
+
+    private final TransportType requestedType;
+    private final TransportType type;
+    private final int bossThreads;
+    private final int workerThreads;
+
+    private EventLoopGroup bossGroup;
+    private EventLoopGroup workerGroup;
+    private int users;
+
+    /**
+     * @param type the requested transport
+     * @param bossThreads the threads accepting connections
+     * @param workerThreads the threads handling the connections, 0 uses twice the amount of cores
+     */
+    public Transport(final @NotNull TransportType type, final int bossThreads, final int workerThreads) {
+        this.requestedType = type;
+        this.type = type.resolve();
+        this.bossThreads = Math.max(1, bossThreads);
+        this.workerThreads = Math.max(0, workerThreads);
+    }
+
+    public synchronized void retain() {
+        this.users++;
+    }
+
+    /**
+     * @throws IllegalStateException if the transport is released more often than it was retained
+     */
+    public synchronized void release() {
+        // an unbalanced release would shut down the event loops under the other users
+        if (this.users <= 0) throw new IllegalStateException("The transport was released more often than it was retained");
+        if (--this.users > 0) return;
+        if (this.bossGroup != null) this.bossGroup.shutdownGracefully();
+        if (this.workerGroup != null) this.workerGroup.shutdownGracefully();
+        this.bossGroup = null;
+        this.workerGroup = null;
+    }
+
+    public synchronized EventLoopGroup getBossGroup() {
+        if (this.bossGroup == null) this.bossGroup = this.newEventLoopGroup(this.bossThreads, "PoloCloud-Boss");
+        return this.bossGroup;
+    }
+
+    public synchronized EventLoopGroup getWorkerGroup() {
+        if (this.workerGroup == null) this.workerGroup = this.newEventLoopGroup(this.workerThreads, "PoloCloud-Worker");
+        return this.workerGroup;
+    }
+
+    private EventLoopGroup newEventLoopGroup(final int threads, final String name) {
+        final var threadFactory = new DefaultThreadFactory(name);
+        return this.type == TransportType.EPOLL ? new EpollEventLoopGroup(threads, threadFactory) : new NioEventLoopGroup(threads, threadFactory);
+    }
+
+    public Class<? extends ServerSocketChannel> getServerSocketChannel() {
+        return this.type == TransportType.EPOLL ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+    }
+
+    public Class<? extends SocketChannel> getSocketChannel() {
+        return this.type == TransportType.EPOLL ? EpollSocketChannel.class : NioSocketChannel.class;
+    }
+
+    public TransportType getType() {
+        return this.type;
+    }
+
+    /**
+     * @return the chosen transport with its capabilities and thread counts, e.g. for the startup log
+     */
+    public String describe() {
+        final var description = new StringBuilder(this.type.name().toLowerCase(Locale.ROOT));
+        if (this.type == TransportType.EPOLL) {
+            description.append(" (tcp fast open ")
+                .append(Epoll.isTcpFastOpenServerSideAvailable() ? "available" : "unavailable").append(")");
+        } else if (this.requestedType != TransportType.NIO) {
+            description.append(" (epoll unavailable: ").append(Epoll.unavailabilityCause().getMessage()).append(")");
+        }
+        final var workers = this.workerThreads == 0 ? "default" : String.valueOf(this.workerThreads);
+        return description.append(", ").append(this.bossThreads).append(" boss and ").append(workers).append(" worker threads").toString();
+    }
+
+}
@@ -0,0 +1,35 @@
+package de.polocloud.network;
+
+import io.netty.channel.epoll.Epoll;
+
+/**
+ * the socket implementation of the event loops, io_uring is not available as netty only ships it as incubator module
+ */
+public enum TransportType {
+
+    /**
+     * epoll if the native library can be loaded, otherwise nio
+     */
+    AUTO,
+
+    /**
+     * the native linux transport
+     */
+    EPOLL,
+
+    /**
+     * the jdk transport, available everywhere
+     */
+    NIO;
+
+    /**
+     * @return the transport which is used for this selection, an unavailable native transport falls back to nio
+     */
+    public TransportType resolve() {
+        return switch (this) {
+            case AUTO, EPOLL -> Epoll.isAvailable() ? EPOLL : NIO;
+            case NIO -> NIO;
+        };
+    }
+
+}
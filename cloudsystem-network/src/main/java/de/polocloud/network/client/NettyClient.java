@@ -6,50 +6,163 @@ import de.polocloud.network.packet.Packet;
 import de.polocloud.network.packet.PacketHandler;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.EventLoopGroup;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
 public class NettyClient extends Node {
 
-    private EventLoopGroup eventLoopGroup;
+    // packets sent while the connection is not authenticated, written once the server answered the handshake
+    private final Deque<Packet> pendingPackets;
+    private ReconnectSettings reconnectSettings;
+
+    private Bootstrap bootstrap;
+    private String host;
+    private int port;
 
-    private Channel channel;
+    private volatile Channel channel;
+    private volatile boolean closed;
+    private volatile boolean authenticated;
+    private int reconnectAttempts;
 
     public NettyClient(final PacketHandler packetHandler, final String name, final NetworkType networkType) {
         super(packetHandler, name, networkType);
+        this.pendingPackets = new ArrayDeque<>();
+        this.reconnectSettings = ReconnectSettings.DEFAULT;
     }
 
     @Override
     public void connect(@NotNull String host, int port) {
-        this.eventLoopGroup = this.newEventLoopGroup();
+        this.retainTransport();
+        this.host = host;
+        this.port = port;
 
-        this.channel = new Bootstrap()
-            .channel(this.getSocketChannel())
-            .group(this.eventLoopGroup)
+        this.bootstrap = new Bootstrap()
+            .channel(this.transport.getSocketChannel())
+            .group(this.transport.getWorkerGroup())
             .handler(new NettyClientInitializer(this))
             .option(ChannelOption.SO_KEEPALIVE, true)
             .option(ChannelOption.TCP_NODELAY, true)
             .option(ChannelOption.AUTO_READ, true)
-            .connect(host, port)
-            .syncUninterruptibly()
-            .channel();
+            .option(ChannelOption.WRITE_BUFFER_WATER_MARK, this.getBackpressureSettings(this.networkType).toWaterMark());
+
+        final var channelFuture = this.connectChannel().awaitUninterruptibly();
+        if (!channelFuture.isSuccess() && !this.reconnectSettings.enabled()) {
+            this.releaseTransport();
+            throw new IllegalStateException("Could not connect to " + host + ":" + port, channelFuture.cause());
+        }
+    }
+
+    private ChannelFuture connectChannel() {
+        final var channelFuture = this.bootstrap.connect(this.host, this.port);
+        this.channel = channelFuture.channel();
+        channelFuture.addListener(future -> {
+            if (!future.isSuccess()) this.scheduleReconnect(channelFuture.channel());
+        });
+        return channelFuture;
+    }
+
+    private void scheduleReconnect(final Channel channel) {
+        // only the current channel reconnects, inactive and failed connect may both report the same one
+        if (this.closed || !this.reconnectSettings.enabled() || channel != this.channel) return;
+        this.channel = null;
+        final var delay = this.reconnectSettings.delay(this.reconnectAttempts++, ThreadLocalRandom.current().nextDouble());
+        this.transport.getWorkerGroup().schedule(() -> {
+            if (!this.closed) this.connectChannel();
+        }, delay, TimeUnit.MILLISECONDS);
     }
 
     @Override
     public void close() {
-        this.channel.close();
+        this.closed = true;
+        final var channel = this.channel;
+        if (channel != null) channel.close();
+        synchronized (this.pendingPackets) {
+            this.pendingPackets.clear();
+        }
 
-        this.eventLoopGroup.shutdownGracefully();
+        this.releaseTransport();
     }
 
+    /**
+     * @throws IllegalStateException if nothing is buffered and there is no active connection to write the packet to
+     */
     public void sendPacket(final @NotNull Packet packet) {
-        this.channel.writeAndFlush(packet);
+        synchronized (this.pendingPackets) {
+            final var channel = this.channel;
+            // a closing channel is still set until it turned inactive, a write to it would be lost
+            final var active = channel != null && channel.isActive();
+            if (this.authenticated && active) {
+                channel.writeAndFlush(packet);
+                return;
+            }
+            if (this.reconnectSettings.maxBufferedPackets() <= 0) {
+                // without a buffer the packet is written straight away, like before the handshake was awaited
+                if (!active) {
+                    throw new IllegalStateException("Could not send " + packet.getClass().getSimpleName() + ", the client is not connected");
+                }
+                channel.writeAndFlush(packet);
+                return;
+            }
+            // the oldest packets are given up first, newer ones carry the more recent state
+            if (this.pendingPackets.size() >= this.reconnectSettings.maxBufferedPackets()) this.pendingPackets.poll();
+            this.pendingPackets.add(packet);
+        }
+    }
+
+    /**
+     * @return the current connection, null while reconnecting
+     */
+    public Channel getChannel() {
+        return this.channel;
+    }
+
+    /**
+     * @return if the server answered the handshake of the current connection
+     */
+    public boolean isAuthenticated() {
+        return this.authenticated;
+    }
+
+    public ReconnectSettings getReconnectSettings() {
+        return this.reconnectSettings;
+    }
+
+    public void setReconnectSettings(final @NotNull ReconnectSettings reconnectSettings) {
+        this.reconnectSettings = reconnectSettings;
+    }
+
+    void handleAuthenticated(final ChannelHandlerContext channelHandlerContext) {
+        synchronized (this.pendingPackets) {
+            this.authenticated = true;
+            this.reconnectAttempts = 0;
+            Packet packet;
+            while ((packet = this.pendingPackets.poll()) != null) channelHandlerContext.write(packet);
+            channelHandlerContext.flush();
+        }
+        this.onAuthenticated(channelHandlerContext);
+    }
+
+    void handleInactive(final ChannelHandlerContext channelHandlerContext) {
+        synchronized (this.pendingPackets) {
+            if (channelHandlerContext.channel() == this.channel) this.authenticated = false;
+        }
+        this.scheduleReconnect(channelHandlerContext.channel());
     }
 
     public void onActivated(final ChannelHandlerContext channelHandlerContext) {}
 
+    /**
+     * called after the server answered the handshake, also after every reconnect
+     */
+    public void onAuthenticated(final ChannelHandlerContext channelHandlerContext) {}
+
     public void onClose(final ChannelHandlerContext channelHandlerContext) {}
 
 }
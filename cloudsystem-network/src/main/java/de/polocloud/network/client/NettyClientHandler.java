@@ -1,5 +1,6 @@
 package de.polocloud.network.client;
 
+import de.polocloud.network.codec.PacketEncoder;
 import de.polocloud.network.packet.Packet;
 import de.polocloud.network.packet.auth.NodeHandshakeAuthenticationPacket;
 import io.netty.channel.ChannelHandlerContext;
@@ -15,13 +16,22 @@ public final class NettyClientHandler extends SimpleChannelInboundHandler<Packet
 
     @Override
     protected void channelRead0(ChannelHandlerContext channelHandlerContext, Packet packet) {
-        this.nettyClient.getPacketHandler().call(channelHandlerContext, packet);
+        if (packet instanceof NodeHandshakeAuthenticationPacket authenticationPacket) {
+            // the server answered the handshake, identifiers can be sent as references from now on
+            channelHandlerContext.pipeline().get(PacketEncoder.class).getDictionary()
+                .setOutboundCapacity(authenticationPacket.getDictionaryCapacity());
+            this.nettyClient.handleAuthenticated(channelHandlerContext);
+        } else {
+            this.nettyClient.getPacketHandler().call(channelHandlerContext, packet);
+        }
     }
 
     @Override
     public void channelActive(ChannelHandlerContext ctx) {
         this.nettyClient.onActivated(ctx);
-        ctx.writeAndFlush(new NodeHandshakeAuthenticationPacket(this.nettyClient.getName(), this.nettyClient.getNetworkType()));
+        final var dictionary = ctx.pipeline().get(PacketEncoder.class).getDictionary();
+        ctx.writeAndFlush(new NodeHandshakeAuthenticationPacket(this.nettyClient.getName(), this.nettyClient.getNetworkType(),
+            dictionary.getInboundCapacity()));
     }
 
     @Override
@@ -31,6 +41,8 @@ public final class NettyClientHandler extends SimpleChannelInboundHandler<Packet
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) {
+        this.nettyClient.getPacketHandler().getRequestManager().cancel(ctx.channel());
+        this.nettyClient.handleInactive(ctx);
         this.nettyClient.onClose(ctx);
     }
 
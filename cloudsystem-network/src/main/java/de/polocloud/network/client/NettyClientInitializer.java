@@ -1,9 +1,14 @@
 package de.polocloud.network.client;
 
+import de.polocloud.network.codec.PacketCompressor;
 import de.polocloud.network.codec.PacketDecoder;
+import de.polocloud.network.codec.PacketDecompressor;
 import de.polocloud.network.codec.PacketEncoder;
 import de.polocloud.network.codec.PacketLengthDeserializer;
 import de.polocloud.network.codec.PacketLengthSerializer;
+import de.polocloud.network.handler.BackpressureHandler;
+import de.polocloud.network.handler.FlushConsolidationHandler;
+import de.polocloud.network.packet.StringDictionary;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
 
@@ -17,11 +22,16 @@ public final class NettyClientInitializer extends ChannelInitializer<SocketChann
 
     @Override
     protected void initChannel(SocketChannel socketChannel) {
+        final var dictionary = new StringDictionary();
         socketChannel.pipeline()
+            .addLast("flush-consolidation", new FlushConsolidationHandler(this.nettyClient.getFlushSettings(this.nettyClient.getNetworkType())))
             .addLast("packet-length-deserializer", new PacketLengthDeserializer())
-            .addLast("packet-decoder", new PacketDecoder(this.nettyClient.getPacketHandler()))
+            .addLast("packet-decompressor", new PacketDecompressor())
+            .addLast("packet-decoder", new PacketDecoder(this.nettyClient.getPacketHandler(), dictionary))
             .addLast("packet-length-serializer", new PacketLengthSerializer())
-            .addLast("packet-encoder", new PacketEncoder(this.nettyClient.getPacketHandler()))
+            .addLast("packet-compressor", new PacketCompressor(this.nettyClient.getCompressionSettings(this.nettyClient.getNetworkType()), this.nettyClient.getCompressionMetrics()))
+            .addLast("packet-encoder", new PacketEncoder(this.nettyClient.getPacketHandler(), dictionary))
+            .addLast("backpressure", new BackpressureHandler(this.nettyClient.getBackpressureSettings(this.nettyClient.getNetworkType())))
             .addLast("handler", new NettyClientHandler(this.nettyClient));
     }
 
@@ -0,0 +1,28 @@
+package de.polocloud.network.client;
+
+/**
+ * @param initialDelayMillis the delay before the first reconnect attempt, it doubles with every failed attempt
+ * @param maxDelayMillis the maximum delay between two attempts
+ * @param maxBufferedPackets the amount of packets which are held back until the connection is authenticated again,
+ * 0 writes every packet straight to the connection
+ */
+public record ReconnectSettings(long initialDelayMillis, long maxDelayMillis, int maxBufferedPackets) {
+
+    public static final ReconnectSettings DEFAULT = new ReconnectSettings(500, 30_000, 1024);
+    public static final ReconnectSettings DISABLED = new ReconnectSettings(-1, -1, 0);
+
+    public boolean enabled() {
+        return this.initialDelayMillis >= 0;
+    }
+
+    /**
+     * @param attempt the number of failed attempts before
+     * @param random a value between 0 and 1
+     * @return the delay of the attempt, between half and the full exponential delay so clients do not reconnect at once
+     */
+    public long delay(final int attempt, final double random) {
+        final var delay = Math.min(this.maxDelayMillis, this.initialDelayMillis << Math.min(attempt, 20));
+        return (long) (delay / 2d + delay / 2d * random);
+    }
+
+}
@@ -0,0 +1,25 @@
+package de.polocloud.network.codec;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DefaultByteBufHolder;
+
+/**
+ * A frame whose payload is deflated, the length codec marks it with {@link PacketLengthSerializer#FLAG_COMPRESSED}.
+ */
+public final class CompressedFrame extends DefaultByteBufHolder {
+
+    public CompressedFrame(final ByteBuf content) {
+        super(content);
+    }
+
+    @Override
+    public CompressedFrame replace(final ByteBuf content) {
+        return new CompressedFrame(content);
+    }
+
+    @Override
+    public CompressedFrame retainedDuplicate() {
+        return this.replace(this.content().retainedDuplicate());
+    }
+
+}
@@ -0,0 +1,40 @@
+package de.polocloud.network.codec;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * counts the payload bytes of every compressed frame before and after the compression
+ */
+public final class CompressionMetrics {
+
+    private final LongAdder frames = new LongAdder();
+    private final LongAdder uncompressedBytes = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+
+    void record(final int uncompressedBytes, final int compressedBytes) {
+        this.frames.increment();
+        this.uncompressedBytes.add(uncompressedBytes);
+        this.compressedBytes.add(compressedBytes);
+    }
+
+    public long getFrames() {
+        return this.frames.sum();
+    }
+
+    public long getUncompressedBytes() {
+        return this.uncompressedBytes.sum();
+    }
+
+    public long getCompressedBytes() {
+        return this.compressedBytes.sum();
+    }
+
+    /**
+     * gets the compressed size relative to the uncompressed size, 1 if nothing was compressed yet
+     */
+    public double getRatio() {
+        final var uncompressed = this.getUncompressedBytes();
+        return uncompressed == 0 ? 1 : (double) this.getCompressedBytes() / uncompressed;
+    }
+
+}
@@ -0,0 +1,83 @@
+package de.polocloud.network.codec;
+
+import de.polocloud.network.handler.CompressionSettings;
+import de.polocloud.network.packet.Packet;
+import de.polocloud.network.packet.PacketHandler;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.DefaultByteBufHolder;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.zip.Deflater;
+
+/**
+ * A large packet which is already encoded and framed, it is written to every channel as a duplicate of the same buffer.
+ */
+public final class EncodedPacket extends DefaultByteBufHolder {
+
+    // the source of the frame, a slow connection decides by it if the frame can be replaced or dropped
+    private final Packet packet;
+
+    public EncodedPacket(final ByteBuf frame, final Packet packet) {
+        super(frame);
+        this.packet = packet;
+    }
+
+    public Packet getPacket() {
+        return this.packet;
+    }
+
+    /**
+     * encodes a broadcast once for all channels if it is above the compression threshold, deflating dominates there
+     * a smaller frame is better encoded by every channel with its own string dictionary
+     * @return the framed packet or null if it stays below the threshold
+     */
+    public static @Nullable EncodedPacket encodeLarge(final @NotNull PacketHandler packetHandler, final @NotNull Packet packet,
+                                                      final @NotNull CompressionSettings compressionSettings, final @NotNull CompressionMetrics metrics) {
+        if (!compressionSettings.enabled()) return null;
+        final var byteBuf = ByteBufAllocator.DEFAULT.ioBuffer();
+        try {
+            // no dictionary, the buffer is shared by every channel
+            PacketEncoder.encode(packetHandler, packet, byteBuf, null);
+            if (byteBuf.readableBytes() - PacketLengthSerializer.MAX_HEADER_SIZE < compressionSettings.threshold()) return null;
+            final var compressed = compress(byteBuf, compressionSettings, metrics);
+            if (compressed == null) {
+                // does not get smaller, sent as it is instead of letting every channel try again
+                PacketLengthSerializer.writeHeader(byteBuf, 0);
+                // the holder takes its own reference, the finally block releases the one of the encoder
+                return new EncodedPacket(byteBuf.retain(), packet);
+            }
+            try {
+                PacketLengthSerializer.writeHeader(compressed, PacketLengthSerializer.FLAG_COMPRESSED);
+                return new EncodedPacket(compressed, packet);
+            } catch (RuntimeException exception) {
+                compressed.release();
+                throw exception;
+            }
+        } finally {
+            byteBuf.release();
+        }
+    }
+
+    private static ByteBuf compress(final ByteBuf byteBuf, final CompressionSettings compressionSettings, final CompressionMetrics metrics) {
+        // broadcasts are encoded by any thread, so they can not share the deflater of a channel
+        final var deflater = new Deflater(compressionSettings.level());
+        try {
+            return PacketCompressor.compress(ByteBufAllocator.DEFAULT, deflater, byteBuf, metrics);
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public EncodedPacket replace(final ByteBuf content) {
+        return new EncodedPacket(content, this.packet);
+    }
+
+    @Override
+    public EncodedPacket retainedDuplicate() {
+        return this.replace(this.content().retainedDuplicate());
+    }
+
+}
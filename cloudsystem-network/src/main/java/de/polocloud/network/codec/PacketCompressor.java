@@ -0,0 +1,86 @@
+package de.polocloud.network.codec;
+
+import de.polocloud.network.handler.CompressionSettings;
+import de.polocloud.network.packet.NetworkBuf;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToMessageEncoder;
+
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Deflates encoded packets above the threshold, the frame keeps the reserved header space in front.
+ * A compressed payload starts with the var int size of the uncompressed payload.
+ */
+public final class PacketCompressor extends MessageToMessageEncoder<ByteBuf> {
+
+    private final CompressionMetrics metrics;
+    private volatile CompressionSettings settings;
+    private Deflater deflater;
+
+    public PacketCompressor(final CompressionSettings settings, final CompressionMetrics metrics) {
+        this.settings = settings;
+        this.metrics = metrics;
+    }
+
+    public void setSettings(final CompressionSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        final var settings = this.settings;
+        if (settings.enabled() && in.readableBytes() - PacketLengthSerializer.MAX_HEADER_SIZE >= settings.threshold()) {
+            if (this.deflater == null) this.deflater = new Deflater(settings.level());
+            final var compressed = compress(ctx.alloc(), this.deflater, in, this.metrics);
+            if (compressed != null) {
+                out.add(new CompressedFrame(compressed));
+                return;
+            }
+        }
+        out.add(in.retain());
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        if (this.deflater != null) this.deflater.end();
+    }
+
+    /**
+     * compresses the payload of a frame into a new buffer with the same reserved header space
+     * @return the compressed frame or null if the payload does not get smaller
+     */
+    static ByteBuf compress(final ByteBufAllocator allocator, final Deflater deflater, final ByteBuf frame, final CompressionMetrics metrics) {
+        final var length = frame.readableBytes() - PacketLengthSerializer.MAX_HEADER_SIZE;
+        final var compressed = allocator.ioBuffer(PacketLengthSerializer.MAX_HEADER_SIZE + length / 2);
+        try {
+            compressed.writeZero(PacketLengthSerializer.MAX_HEADER_SIZE);
+            new NetworkBuf(compressed).writeVarInt(length);
+            final var headerSize = compressed.readableBytes();
+
+            deflater.setInput(frame.nioBuffer(frame.readerIndex() + PacketLengthSerializer.MAX_HEADER_SIZE, length));
+            deflater.finish();
+            while (!deflater.finished()) {
+                compressed.ensureWritable(8192);
+                final var written = deflater.deflate(compressed.nioBuffer(compressed.writerIndex(), compressed.writableBytes()));
+                compressed.writerIndex(compressed.writerIndex() + written);
+            }
+
+            final var compressedLength = compressed.readableBytes() - headerSize;
+            if (compressedLength >= length) {
+                compressed.release();
+                return null;
+            }
+            metrics.record(length, compressedLength);
+            return compressed;
+        } catch (RuntimeException exception) {
+            compressed.release();
+            throw exception;
+        } finally {
+            deflater.reset();
+        }
+    }
+
+}
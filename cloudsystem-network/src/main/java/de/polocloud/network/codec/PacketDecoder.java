@@ -2,33 +2,35 @@ package de.polocloud.network.codec;
 
 import de.polocloud.network.packet.NetworkBuf;
 import de.polocloud.network.packet.PacketHandler;
+import de.polocloud.network.packet.StringDictionary;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.MessageToMessageDecoder;
 
-import java.lang.reflect.InvocationTargetException;
 import java.util.List;
 
-public final class PacketDecoder extends ByteToMessageDecoder {
+public final class PacketDecoder extends MessageToMessageDecoder<ByteBuf> {
 
     private final PacketHandler packetHandler;
+    private final StringDictionary dictionary;
 
-    public PacketDecoder(final PacketHandler packetHandler) {
+    public PacketDecoder(final PacketHandler packetHandler, final StringDictionary dictionary) {
         this.packetHandler = packetHandler;
+        this.dictionary = dictionary;
     }
 
     @Override
     protected void decode(ChannelHandlerContext channelHandlerContext, ByteBuf byteBuf, List<Object> list) {
-        final var index = byteBuf.readInt();
-        final var clazz = this.packetHandler.getPacketClass(index);
-        if (clazz != null) {
+        final var packet = this.packetHandler.createPacket(byteBuf.readInt());
+        if (packet != null) {
             try {
-                final var packet = clazz.getDeclaredConstructor().newInstance();
-                packet.read(new NetworkBuf(byteBuf));
-                list.add(packet);
-            } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-                e.printStackTrace();
+                packet.read(new NetworkBuf(byteBuf, this.dictionary));
+            } catch (RuntimeException e) {
+                // the rest of the frame may define identifiers, the dictionary would be out of sync
+                channelHandlerContext.close();
+                throw e;
             }
+            list.add(packet);
         }
     }
 
@@ -0,0 +1,60 @@
+package de.polocloud.network.codec;
+
+import de.polocloud.network.packet.NetworkBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.CorruptedFrameException;
+import io.netty.handler.codec.DecoderException;
+import io.netty.handler.codec.MessageToMessageDecoder;
+
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Inflates frames which were marked as compressed, other frames pass through. It is always part of the pipeline,
+ * so the other side can decide on its own if it compresses.
+ */
+public final class PacketDecompressor extends MessageToMessageDecoder<CompressedFrame> {
+
+    // protects against frames which inflate to a huge amount of memory
+    private static final int MAX_UNCOMPRESSED_SIZE = 64 * 1024 * 1024;
+
+    private Inflater inflater;
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, CompressedFrame frame, List<Object> out) {
+        final var in = frame.content();
+        final var length = new NetworkBuf(in).readVarInt();
+        if (length < 0 || length > MAX_UNCOMPRESSED_SIZE) throw new CorruptedFrameException("Invalid uncompressed length: " + length);
+
+        if (this.inflater == null) this.inflater = new Inflater();
+        // one spare byte, so the end of the stream is still read if the payload fills the buffer exactly
+        final var uncompressed = ctx.alloc().ioBuffer(length + 1);
+        try {
+            this.inflater.setInput(in.nioBuffer());
+            while (!this.inflater.finished() && uncompressed.isWritable()) {
+                final var written = this.inflater.inflate(uncompressed.nioBuffer(uncompressed.writerIndex(), uncompressed.writableBytes()));
+                if (written == 0 && (this.inflater.needsInput() || this.inflater.needsDictionary())) break;
+                uncompressed.writerIndex(uncompressed.writerIndex() + written);
+            }
+            if (!this.inflater.finished() || uncompressed.readableBytes() != length) {
+                throw new CorruptedFrameException("Compressed frame does not match its length of " + length);
+            }
+            out.add(uncompressed);
+        } catch (DataFormatException exception) {
+            uncompressed.release();
+            throw new DecoderException(exception);
+        } catch (RuntimeException exception) {
+            uncompressed.release();
+            throw exception;
+        } finally {
+            this.inflater.reset();
+        }
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        if (this.inflater != null) this.inflater.end();
+    }
+
+}
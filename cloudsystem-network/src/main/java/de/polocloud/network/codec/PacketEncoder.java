@@ -3,22 +3,43 @@ package de.polocloud.network.codec;
 import de.polocloud.network.packet.Packet;
 import de.polocloud.network.packet.NetworkBuf;
 import de.polocloud.network.packet.PacketHandler;
+import de.polocloud.network.packet.StringDictionary;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.MessageToByteEncoder;
+import org.jetbrains.annotations.Nullable;
 
 public final class PacketEncoder extends MessageToByteEncoder<Packet> {
 
     private final PacketHandler packetHandler;
+    private final StringDictionary dictionary;
 
-    public PacketEncoder(final PacketHandler packetHandler) {
+    public PacketEncoder(final PacketHandler packetHandler, final StringDictionary dictionary) {
         this.packetHandler = packetHandler;
+        this.dictionary = dictionary;
     }
 
     @Override
     protected void encode(ChannelHandlerContext channelHandlerContext, Packet packet, ByteBuf byteBuf) {
-        byteBuf.writeInt(this.packetHandler.getPacketId(packet.getClass()));
-        packet.write(new NetworkBuf(byteBuf));
+        this.dictionary.mark();
+        try {
+            encode(this.packetHandler, packet, byteBuf, this.dictionary);
+        } catch (RuntimeException e) {
+            // the packet is not sent, so the identifiers it defined are unknown to the other side
+            this.dictionary.rollback();
+            throw e;
+        }
+    }
+
+    public StringDictionary getDictionary() {
+        return this.dictionary;
+    }
+
+    static void encode(final PacketHandler packetHandler, final Packet packet, final ByteBuf byteBuf, final @Nullable StringDictionary dictionary) {
+        // reserve the header, the length serializer fills it in place
+        byteBuf.writeZero(PacketLengthSerializer.MAX_HEADER_SIZE);
+        byteBuf.writeInt(packetHandler.getPacketId(packet.getClass()));
+        packet.write(new NetworkBuf(byteBuf, dictionary));
     }
 
 }
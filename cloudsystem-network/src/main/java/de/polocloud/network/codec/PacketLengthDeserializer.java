@@ -1,69 +1,44 @@
 package de.polocloud.network.codec;
 
 import io.netty.buffer.ByteBuf;
-import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.handler.codec.CorruptedFrameException;
 
 import java.util.List;
 
 public class PacketLengthDeserializer extends ByteToMessageDecoder {
 
-    private final int byteSize = 5;
-
     @Override
     protected void decode(ChannelHandlerContext channelHandlerContext, ByteBuf byteBuf, List<Object> list) {
-        try {
-            if (!channelHandlerContext.channel().isActive()) {
-                byteBuf.skipBytes(byteBuf.readableBytes());
-                return;
-            }
-            if (!byteBuf.isReadable()) return;
-
-            final var readerIndex = byteBuf.readerIndex();
-            final var bytes = new byte[this.byteSize];
-
-            for (var i = 0; i < this.byteSize; i++) {
-                if (!byteBuf.isReadable()) {
-                    byteBuf.readerIndex(readerIndex);
-                    return;
-                }
+        if (!channelHandlerContext.channel().isActive()) {
+            byteBuf.skipBytes(byteBuf.readableBytes());
+            return;
+        }
 
-                bytes[i] = byteBuf.readByte();
-                if (bytes[i] >= 0) {
-                    final var buf = Unpooled.wrappedBuffer(bytes);
+        // read the var int in place, nothing is consumed until the whole frame is available
+        final var readerIndex = byteBuf.readerIndex();
+        final var readableBytes = byteBuf.readableBytes();
+        var header = 0;
 
-                    try {
-                        final var length = this.readVarIntUnchecked(buf);
+        for (var i = 0; i < PacketLengthSerializer.MAX_HEADER_SIZE; i++) {
+            if (i >= readableBytes) return;
 
-                        if (byteBuf.readableBytes() < length) {
-                            byteBuf.readerIndex(readerIndex);
-                            return;
-                        }
+            final var b = byteBuf.getByte(readerIndex + i);
+            header |= (b & 127) << i * 7;
 
-                        list.add(byteBuf.readBytes(length));
-                    } finally {
-                        buf.release();
-                    }
-                    return;
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
+            if (b >= 0) {
+                if (header < 0) throw new CorruptedFrameException("Negative frame header: " + header);
+                final var length = header >>> 1;
+                if (readableBytes - i - 1 < length) return;
 
-    private int readVarIntUnchecked(ByteBuf byteBuf) {
-        var i = 0;
-        final var maxRead = Math.min(this.byteSize, byteBuf.readableBytes());
-        for (var j = 0; j < maxRead; j++) {
-            var k = byteBuf.readByte();
-            i |= (k & 127) << j * 7;
-            if ((k & 128) != 128) {
-                return i;
+                byteBuf.skipBytes(i + 1);
+                final var frame = byteBuf.readRetainedSlice(length);
+                list.add((header & PacketLengthSerializer.FLAG_COMPRESSED) != 0 ? new CompressedFrame(frame) : frame);
+                return;
             }
         }
-        return i;
+        throw new CorruptedFrameException("Frame length is wider than 32 bits");
     }
 
 }
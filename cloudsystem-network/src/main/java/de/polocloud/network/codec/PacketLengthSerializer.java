@@ -2,36 +2,63 @@ package de.polocloud.network.codec;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 
-public class PacketLengthSerializer extends MessageToByteEncoder<ByteBuf> {
+import java.util.List;
+
+/**
+ * Fills the length prefix into the header space which the {@link PacketEncoder} reserved in front of the packet,
+ * so the frame leaves the pipeline in the same buffer it was encoded into. Already framed {@link EncodedPacket}s
+ * are passed through unchanged. The header is the var int of the payload length shifted left by one, the lowest
+ * bit is {@link #FLAG_COMPRESSED}.
+ */
+public class PacketLengthSerializer extends MessageToMessageEncoder<Object> {
+
+    public static final int MAX_HEADER_SIZE = 5;
+    public static final int FLAG_COMPRESSED = 1;
+
+    @Override
+    public boolean acceptOutboundMessage(Object msg) {
+        return msg instanceof ByteBuf || msg instanceof EncodedPacket || msg instanceof CompressedFrame;
+    }
 
     @Override
-    protected void encode(ChannelHandlerContext ctx, ByteBuf in, ByteBuf out) {
-        try {
-            final var readable = in.readableBytes();
-
-            out.ensureWritable(readable + this.getVarIntSize(readable));
-            writeVarInt(out, readable);
-            out.writeBytes(in, in.readerIndex(), readable);
-        } catch (Exception e) {
-            e.printStackTrace();
+    protected void encode(ChannelHandlerContext ctx, Object msg, List<Object> out) {
+        if (msg instanceof EncodedPacket encodedPacket) {
+            out.add(encodedPacket.content().retain());
+            return;
+        }
+        if (msg instanceof CompressedFrame compressedFrame) {
+            writeHeader(compressedFrame.content(), FLAG_COMPRESSED);
+            out.add(compressedFrame.content().retain());
+            return;
         }
+        final var in = (ByteBuf) msg;
+        writeHeader(in, 0);
+        out.add(in.retain());
     }
 
-    private void writeVarInt(final ByteBuf buf, int value) {
-        while (true) {
-            if ((value & -128) == 0) {
-                buf.writeByte(value);
-                return;
-            }
+    /**
+     * writes the var int length and the flags in front of the payload
+     * @param buf a buffer whose first {@link #MAX_HEADER_SIZE} readable bytes are reserved for the header
+     * @param flags the frame flags
+     */
+    public static void writeHeader(final ByteBuf buf, final int flags) {
+        final var length = buf.readableBytes() - MAX_HEADER_SIZE;
+        if (length > Integer.MAX_VALUE >>> 1) throw new IllegalArgumentException("Frame is too large: " + length);
+        var value = length << 1 | flags;
+        final var headerSize = getVarIntSize(value);
+        final var headerIndex = buf.readerIndex() + MAX_HEADER_SIZE - headerSize;
 
-            buf.writeByte(value & 127 | 128);
+        for (var i = 0; i < headerSize - 1; i++) {
+            buf.setByte(headerIndex + i, value & 127 | 128);
             value >>>= 7;
         }
+        buf.setByte(headerIndex + headerSize - 1, value);
+        buf.readerIndex(headerIndex);
     }
 
-    private int getVarIntSize(final int value) {
+    public static int getVarIntSize(final int value) {
         if ((value & 0xffffff80) == 0) {
             return 1;
         } else if ((value & 0xffffc000) == 0) {
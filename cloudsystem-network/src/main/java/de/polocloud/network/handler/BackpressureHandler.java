@@ -0,0 +1,174 @@
+package de.polocloud.network.handler;
+
+import de.polocloud.network.codec.EncodedPacket;
+import de.polocloud.network.packet.DroppablePacket;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import io.netty.util.ReferenceCountUtil;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Holds packets back while the channel is not writable, so a slow peer does not make the outbound buffer grow without limit.
+ * The held back packets are written in order once the channel is writable again, on overflow the {@link BackpressureSettings.Policy} applies.
+ */
+public final class BackpressureHandler extends ChannelDuplexHandler {
+
+    private final Deque<PendingWrite> pendingWrites;
+    private final Map<Object, PendingWrite> pendingWritesByKey;
+
+    private volatile BackpressureSettings settings;
+    private ChannelHandlerContext ctx;
+    private int pendingPackets;
+
+    public BackpressureHandler(final BackpressureSettings settings) {
+        this.pendingWrites = new ArrayDeque<>();
+        this.pendingWritesByKey = new HashMap<>();
+        this.settings = settings;
+    }
+
+    public void setSettings(final BackpressureSettings settings) {
+        this.settings = settings;
+        if (this.ctx != null) this.ctx.channel().config().setWriteBufferWaterMark(settings.toWaterMark());
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.ctx = ctx;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        if (this.pendingWrites.isEmpty() && ctx.channel().isWritable()) {
+            ctx.write(msg, promise);
+        } else {
+            this.enqueue(ctx, msg, promise);
+        }
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        this.drain(ctx);
+        ctx.flush();
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (ctx.channel().isWritable() && !this.pendingWrites.isEmpty()) {
+            this.drain(ctx);
+            ctx.flush();
+        }
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) {
+        this.failPendingWrites();
+        ctx.fireChannelInactive();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        this.failPendingWrites();
+    }
+
+    private void enqueue(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
+        final var settings = this.settings;
+        final var pendingWrite = new PendingWrite(msg, promise);
+        if (settings.policy() == BackpressureSettings.Policy.COALESCE && pendingWrite.packet != null) {
+            pendingWrite.key = pendingWrite.packet.getCoalescingKey();
+            if (pendingWrite.key != null) {
+                final var obsolete = this.pendingWritesByKey.put(pendingWrite.key, pendingWrite);
+                if (obsolete != null) this.replace(obsolete);
+            }
+        }
+        this.pendingWrites.add(pendingWrite);
+        if (++this.pendingPackets > settings.maxQueuedPackets()) this.overflow(ctx, settings);
+    }
+
+    private void replace(final PendingWrite obsolete) {
+        // the newer packet is queued behind it, so it is enough to keep what the obsolete packet has to leave behind
+        final var replacement = obsolete.packet.getCoalescedReplacement();
+        ReferenceCountUtil.release(obsolete.msg);
+        obsolete.key = null;
+        obsolete.packet = null;
+        if (replacement == null) {
+            obsolete.msg = null;
+            obsolete.promise.trySuccess();
+            this.pendingPackets--;
+        } else {
+            obsolete.msg = replacement;
+        }
+    }
+
+    private void overflow(final ChannelHandlerContext ctx, final BackpressureSettings settings) {
+        if (settings.policy() != BackpressureSettings.Policy.DISCONNECT) {
+            final var iterator = this.pendingWrites.iterator();
+            while (iterator.hasNext()) {
+                final var pendingWrite = iterator.next();
+                if (pendingWrite.msg == null) {
+                    iterator.remove();
+                } else if (pendingWrite.packet != null) {
+                    iterator.remove();
+                    this.drop(pendingWrite);
+                    return;
+                }
+            }
+        }
+        // only packets which have to arrive are held back, the peer does not keep up at all
+        this.failPendingWrites();
+        ctx.close();
+    }
+
+    private void drop(final PendingWrite pendingWrite) {
+        if (pendingWrite.key != null) this.pendingWritesByKey.remove(pendingWrite.key, pendingWrite);
+        ReferenceCountUtil.release(pendingWrite.msg);
+        pendingWrite.promise.tryFailure(new IllegalStateException("The packet was dropped, the connection does not keep up"));
+        this.pendingPackets--;
+    }
+
+    private void drain(final ChannelHandlerContext ctx) {
+        while (!this.pendingWrites.isEmpty() && ctx.channel().isWritable()) {
+            final var pendingWrite = this.pendingWrites.poll();
+            if (pendingWrite.msg == null) continue;
+            if (pendingWrite.key != null) this.pendingWritesByKey.remove(pendingWrite.key, pendingWrite);
+            this.pendingPackets--;
+            ctx.write(pendingWrite.msg, pendingWrite.promise);
+        }
+    }
+
+    private void failPendingWrites() {
+        PendingWrite pendingWrite;
+        while ((pendingWrite = this.pendingWrites.poll()) != null) {
+            if (pendingWrite.msg == null) continue;
+            ReferenceCountUtil.release(pendingWrite.msg);
+            pendingWrite.promise.tryFailure(new ClosedChannelException());
+        }
+        this.pendingWritesByKey.clear();
+        this.pendingPackets = 0;
+    }
+
+    private static final class PendingWrite {
+
+        private final ChannelPromise promise;
+        private Object msg;
+        // set while the packet may still be replaced or dropped
+        private @Nullable DroppablePacket packet;
+        private @Nullable Object key;
+
+        private PendingWrite(final Object msg, final ChannelPromise promise) {
+            this.msg = msg;
+            this.promise = promise;
+            final var packet = msg instanceof EncodedPacket encodedPacket ? encodedPacket.getPacket() : msg;
+            if (packet instanceof DroppablePacket droppablePacket && droppablePacket.isDroppable()) this.packet = droppablePacket;
+        }
+
+    }
+
+}
@@ -0,0 +1,38 @@
+package de.polocloud.network.handler;
+
+import io.netty.channel.WriteBufferWaterMark;
+
+/**
+ * @param lowWaterMark the amount of pending outbound bytes below which the connection is writable again
+ * @param highWaterMark the amount of pending outbound bytes above which the connection is not writable
+ * @param maxQueuedPackets the amount of packets which are held back while the connection is not writable
+ * @param policy what happens to the held back packets once there are too many
+ */
+public record BackpressureSettings(int lowWaterMark, int highWaterMark, int maxQueuedPackets, Policy policy) {
+
+    public static final BackpressureSettings DEFAULT = new BackpressureSettings(256 * 1024, 1024 * 1024, 8192, Policy.COALESCE);
+
+    public WriteBufferWaterMark toWaterMark() {
+        return new WriteBufferWaterMark(this.lowWaterMark, this.highWaterMark);
+    }
+
+    public enum Policy {
+
+        /**
+         * replaces held back packets with newer ones for the same entity and drops the oldest droppable packet on overflow
+         */
+        COALESCE,
+
+        /**
+         * drops the oldest droppable packet on overflow
+         */
+        DROP_OLDEST,
+
+        /**
+         * closes the connection on overflow
+         */
+        DISCONNECT
+
+    }
+
+}
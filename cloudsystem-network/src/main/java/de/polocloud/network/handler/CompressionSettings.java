@@ -0,0 +1,17 @@
+package de.polocloud.network.handler;
+
+import java.util.zip.Deflater;
+
+/**
+ * @param threshold the minimum payload size in bytes which is compressed, a negative value disables the compression
+ * @param level the deflate level between 0 and 9
+ */
+public record CompressionSettings(int threshold, int level) {
+
+    public static final CompressionSettings DISABLED = new CompressionSettings(-1, Deflater.DEFAULT_COMPRESSION);
+
+    public boolean enabled() {
+        return this.threshold >= 0;
+    }
+
+}
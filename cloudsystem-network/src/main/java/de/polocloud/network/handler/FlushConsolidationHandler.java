@@ -0,0 +1,86 @@
+package de.polocloud.network.handler;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+
+/**
+ * Collects the flushes of one event loop tick into a single flush, so a burst of packets leaves in one syscall.
+ * A flush happens earlier once the configured amount of packets or bytes is pending.
+ */
+public final class FlushConsolidationHandler extends ChannelDuplexHandler {
+
+    private volatile FlushSettings settings;
+
+    private int pendingPackets;
+    private long pendingBytes;
+    private boolean flushScheduled;
+    private Runnable flushTask;
+
+    public FlushConsolidationHandler(final FlushSettings settings) {
+        this.settings = settings;
+    }
+
+    public void setSettings(final FlushSettings settings) {
+        this.settings = settings;
+    }
+
+    @Override
+    public void handlerAdded(ChannelHandlerContext ctx) {
+        this.flushTask = () -> {
+            if (this.flushScheduled) this.flushNow(ctx);
+        };
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) {
+        this.pendingPackets++;
+        if (msg instanceof ByteBuf byteBuf) this.pendingBytes += byteBuf.readableBytes();
+        ctx.write(msg, promise);
+    }
+
+    @Override
+    public void flush(ChannelHandlerContext ctx) {
+        final var settings = this.settings;
+        if (!settings.consolidate()
+            || this.pendingPackets >= settings.maxPendingPackets()
+            || this.pendingBytes >= settings.maxPendingBytes()) {
+            this.flushNow(ctx);
+        } else if (!this.flushScheduled) {
+            this.flushScheduled = true;
+            ctx.channel().eventLoop().execute(this.flushTask);
+        }
+    }
+
+    @Override
+    public void close(ChannelHandlerContext ctx, ChannelPromise promise) {
+        this.flushNow(ctx);
+        ctx.close(promise);
+    }
+
+    @Override
+    public void disconnect(ChannelHandlerContext ctx, ChannelPromise promise) {
+        this.flushNow(ctx);
+        ctx.disconnect(promise);
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) {
+        if (!ctx.channel().isWritable()) this.flushNow(ctx);
+        ctx.fireChannelWritabilityChanged();
+    }
+
+    @Override
+    public void handlerRemoved(ChannelHandlerContext ctx) {
+        if (this.pendingPackets > 0) this.flushNow(ctx);
+    }
+
+    private void flushNow(final ChannelHandlerContext ctx) {
+        this.flushScheduled = false;
+        this.pendingPackets = 0;
+        this.pendingBytes = 0;
+        ctx.flush();
+    }
+
+}
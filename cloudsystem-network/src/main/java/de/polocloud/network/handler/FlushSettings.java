@@ -0,0 +1,13 @@
+package de.polocloud.network.handler;
+
+/**
+ * @param consolidate if flushes are delayed to the end of the current event loop tick
+ * @param maxPendingPackets the amount of written packets which forces a flush
+ * @param maxPendingBytes the amount of written bytes which forces a flush
+ */
+public record FlushSettings(boolean consolidate, int maxPendingPackets, int maxPendingBytes) {
+
+    public static final FlushSettings DEFAULT = new FlushSettings(true, 64, 64 * 1024);
+    public static final FlushSettings DISABLED = new FlushSettings(false, 1, 0);
+
+}
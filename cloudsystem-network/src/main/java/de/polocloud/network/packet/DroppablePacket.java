@@ -0,0 +1,33 @@
+package de.polocloud.network.packet;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * a packet which only carries the latest state of something, a connection which does not keep up
+ * may replace it with a newer packet for the same key or drop it, every other packet is always sent
+ */
+public interface DroppablePacket extends Packet {
+
+    /**
+     * @return if this packet may be replaced or dropped
+     */
+    default boolean isDroppable() {
+        return true;
+    }
+
+    /**
+     * @return the entity the packet updates, a newer packet with the same key makes this one obsolete,
+     * null if it is never replaced
+     */
+    default @Nullable Object getCoalescingKey() {
+        return null;
+    }
+
+    /**
+     * @return the packet which is sent instead after a newer packet replaced this one, null sends nothing
+     */
+    default @Nullable Packet getCoalescedReplacement() {
+        return null;
+    }
+
+}
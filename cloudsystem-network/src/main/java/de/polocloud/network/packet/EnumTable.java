@@ -0,0 +1,57 @@
+package de.polocloud.network.packet;
+
+import de.polocloud.network.NetworkType;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * the enum types which can be written with {@link NetworkBuf#writeEnum(Enum)},
+ * both sides have to register the same types in the same order like the packets
+ */
+public final class EnumTable {
+
+    private static volatile Map<Class<?>, Integer> enumIds = new IdentityHashMap<>();
+    private static volatile Enum<?>[][] enumConstants = new Enum<?>[0][];
+
+    static {
+        register(NetworkType.class);
+    }
+
+    private EnumTable() {
+    }
+
+    /**
+     * registers enum types, already registered types are ignored
+     * @param enumClasses the enum types to register
+     */
+    @SafeVarargs
+    public static synchronized void register(final @NotNull Class<? extends Enum<?>>... enumClasses) {
+        // copy on write, the tables are only read on the event loops
+        final var ids = new IdentityHashMap<>(enumIds);
+        var constants = enumConstants;
+        for (final var enumClass : enumClasses) {
+            if (ids.containsKey(enumClass)) continue;
+            ids.put(enumClass, constants.length);
+            constants = Arrays.copyOf(constants, constants.length + 1);
+            constants[constants.length - 1] = enumClass.getEnumConstants();
+        }
+        enumConstants = constants;
+        enumIds = ids;
+    }
+
+    static int getId(final Class<?> enumClass) {
+        final var id = enumIds.get(enumClass);
+        if (id == null) throw new IllegalArgumentException("The enum " + enumClass.getName() + " is not registered");
+        return id;
+    }
+
+    static Enum<?> getConstant(final int id, final int ordinal) {
+        final var constants = enumConstants;
+        if (id < 0 || id >= constants.length) throw new IllegalArgumentException("Unknown enum id " + id);
+        return constants[id][ordinal];
+    }
+
+}
@@ -0,0 +1,23 @@
+package de.polocloud.network.packet;
+
+/**
+ * where a packet listener runs, see {@link PacketHandler#registerPacketListener(Class, ExecutionMode, PacketListener)}
+ */
+public enum ExecutionMode {
+
+    /**
+     * on the thread which handles the packet, mostly the event loop of the connection, only for listeners which never block
+     */
+    INLINE,
+
+    /**
+     * on the shared listener pool, packets may be handled in parallel and in any order
+     */
+    ASYNC,
+
+    /**
+     * on the shared listener pool, one packet after another for the same key
+     */
+    SERIALIZED
+
+}
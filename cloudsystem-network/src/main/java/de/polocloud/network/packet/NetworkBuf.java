@@ -1,56 +1,78 @@
 package de.polocloud.network.packet;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.handler.codec.DecoderException;
+import org.jetbrains.annotations.Nullable;
 
 import java.nio.charset.StandardCharsets;
 import java.util.UUID;
 
-public record NetworkBuf(ByteBuf byteBuf) {
+public record NetworkBuf(ByteBuf byteBuf, @Nullable StringDictionary dictionary) {
+
+    public NetworkBuf(ByteBuf byteBuf) {
+        this(byteBuf, null);
+    }
 
     public NetworkBuf writeString(String string) {
-        final var bytes = string.getBytes(StandardCharsets.UTF_8);
-        this.byteBuf.writeInt(bytes.length);
-        this.byteBuf.writeBytes(bytes);
+        // utf8Bytes only counts, the chars are encoded straight into the buffer
+        this.writeVarInt(ByteBufUtil.utf8Bytes(string));
+        this.byteBuf.writeCharSequence(string, StandardCharsets.UTF_8);
         return this;
     }
 
     public String readString() {
-        final var bytes = new byte[this.byteBuf.readInt()];
-        this.byteBuf.readBytes(bytes);
-        return new String(bytes, StandardCharsets.UTF_8);
+        return this.byteBuf.readCharSequence(this.readVarInt(), StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * writes an identifier which repeats a lot (service, group or node names, states),
+     * it is sent as a reference if the connection has a string dictionary
+     */
+    public NetworkBuf writeIdentifier(String identifier) {
+        if (this.dictionary == null) {
+            // a buffer without connection, e.g. a broadcast which is encoded once for all channels
+            this.writeVarInt(StringDictionary.LITERAL);
+            this.writeString(identifier);
+        } else {
+            this.dictionary.write(this, identifier);
+        }
+        return this;
+    }
+
+    public String readIdentifier() {
+        if (this.dictionary == null) {
+            if (this.readVarInt() > StringDictionary.DEFINE) throw new DecoderException("Identifier reference without a dictionary");
+            return this.readString();
+        }
+        return this.dictionary.read(this);
     }
 
     @SuppressWarnings("unchecked")
     public <T extends Enum<T>> T readEnum() {
-        final var nullObject = this.byteBuf.readBoolean();
-        if (nullObject) return null;
-        Class<?> enumClass;
-        try {
-            final var classString = this.readString();
-            enumClass = Class.forName(classString);
-            final var varInt = this.readVarInt();
-            return (T) enumClass.getEnumConstants()[varInt];
-        } catch (ClassNotFoundException e) {
-            e.printStackTrace();
-        }
-        return null;
+        // 0 is null, otherwise the enum table id + 1 followed by the ordinal
+        final var id = this.readVarInt();
+        if (id == 0) return null;
+        return (T) EnumTable.getConstant(id - 1, this.readVarInt());
     }
 
     public NetworkBuf writeEnum(Enum<?> val) {
-        this.byteBuf.writeBoolean(val == null);
-        if (val != null) {
-            this.writeString(val.getDeclaringClass().getName());
+        if (val == null) {
+            this.writeVarInt(0);
+        } else {
+            this.writeVarInt(EnumTable.getId(val.getDeclaringClass()) + 1);
             this.writeVarInt(val.ordinal());
         }
         return this;
     }
 
-    public void writeVarInt(int input) {
+    public NetworkBuf writeVarInt(int input) {
         while ((input & -128) != 0) {
             this.byteBuf.writeByte(input & 127 | 128);
             input >>>= 7;
         }
         this.byteBuf.writeByte(input);
+        return this;
     }
 
     public int readInt() {
@@ -71,6 +93,15 @@ public record NetworkBuf(ByteBuf byteBuf) {
         return this;
     }
 
+    public long readLong() {
+        return this.byteBuf.readLong();
+    }
+
+    public NetworkBuf writeLong(long value) {
+        this.byteBuf.writeLong(value);
+        return this;
+    }
+
     public int readVarInt() {
         var i = 0;
         var j = 0;
@@ -1,47 +1,152 @@
 package de.polocloud.network.packet;
 
+import de.polocloud.network.packet.request.RequestManager;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.DefaultThreadFactory;
 import lombok.Getter;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.Consumer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public final class PacketHandler {
 
     private final List<Class<? extends Packet>> packets;
-    @Getter private final Map<UUID, Consumer<Packet>> responses;
+    private final Map<Class<? extends Packet>, Integer> packetIds;
+    private final Class<? extends Packet>[] packetClasses;
+    private final Supplier<? extends Packet>[] packetFactories;
+    @Getter private final RequestManager requestManager;
 
-    @SuppressWarnings("rawtypes")
-    private final Map<Class<? extends Packet>, List<PacketListener>> packetListener;
+    private final Map<Class<? extends Packet>, RegisteredListener[]> packetListener;
+    private final ExecutorService listenerExecutor;
+    private final SerialExecutor serialExecutor;
 
     @SafeVarargs
+    @SuppressWarnings("unchecked")
     public PacketHandler(final Class<? extends Packet>... packets) {
-        this.packets = Arrays.asList(packets);
+        this.packets = List.of(packets);
+
+        // the list defines the ids, the lookup tables are derived once and never change
+        this.packetIds = new IdentityHashMap<>(this.packets.size());
+        this.packetClasses = this.packets.toArray(new Class[0]);
+        this.packetFactories = new Supplier[this.packetClasses.length];
+        for (var i = 0; i < this.packetClasses.length; i++) {
+            this.packetIds.putIfAbsent(this.packetClasses[i], i);
+            this.packetFactories[i] = createFactory(this.packetClasses[i]);
+        }
 
-        this.packetListener = new HashMap<>();
-        this.responses = new HashMap<>();
+        this.packetListener = new ConcurrentHashMap<>();
+        // java 17 has no virtual threads, a cached pool only keeps threads while listeners block
+        this.listenerExecutor = Executors.newCachedThreadPool(new DefaultThreadFactory("PoloCloud-Listener", true));
+        this.serialExecutor = new SerialExecutor(this.listenerExecutor);
+        this.requestManager = new RequestManager();
     }
 
+    /**
+     * registers a listener which runs inline, it must never block
+     */
     public <T extends Packet> void registerPacketListener(final @NotNull Class<T> clazz, final @NotNull PacketListener<T> packetListener) {
-        final var packetListeners = this.packetListener.getOrDefault(clazz, new ArrayList<>());
-        packetListeners.add(packetListener);
-        this.packetListener.put(clazz, packetListeners);
+        this.registerPacketListener(clazz, ExecutionMode.INLINE, packetListener);
+    }
+
+    /**
+     * registers a listener, a serialized listener handles the packets of a connection one after another
+     */
+    public <T extends Packet> void registerPacketListener(final @NotNull Class<T> clazz, final @NotNull ExecutionMode executionMode,
+                                                          final @NotNull PacketListener<T> packetListener) {
+        this.addListener(clazz, new RegisteredListener(packetListener, executionMode, null));
+    }
+
+    /**
+     * registers a serialized listener, the packets with the same key are handled one after another
+     * @param key gets the key of a packet, e.g. the name of the service it targets
+     */
+    public <T extends Packet> void registerPacketListener(final @NotNull Class<T> clazz, final @NotNull Function<T, Object> key,
+                                                          final @NotNull PacketListener<T> packetListener) {
+        this.addListener(clazz, new RegisteredListener(packetListener, ExecutionMode.SERIALIZED, key));
+    }
+
+    private void addListener(final Class<? extends Packet> clazz, final RegisteredListener registeredListener) {
+        // listeners are copied on write, so dispatching never sees a half updated array
+        this.packetListener.compute(clazz, (key, listeners) -> {
+            if (listeners == null) return new RegisteredListener[]{registeredListener};
+            final var copy = Arrays.copyOf(listeners, listeners.length + 1);
+            copy[listeners.length] = registeredListener;
+            return copy;
+        });
     }
 
     @SuppressWarnings("unchecked")
     public <T extends Packet> void call(final ChannelHandlerContext channelHandlerContext, final @NotNull T t) {
-        if (!this.packetListener.containsKey(t.getClass())) return;
-        this.packetListener.get(t.getClass()).forEach(listener -> listener.handle(channelHandlerContext, t));
+        final var listeners = this.packetListener.get(t.getClass());
+        if (listeners == null) return;
+        for (final var listener : listeners) {
+            switch (listener.executionMode()) {
+                case INLINE -> listener.packetListener().handle(channelHandlerContext, t);
+                case ASYNC -> this.listenerExecutor.execute(() -> listener.handle(channelHandlerContext, t));
+                case SERIALIZED -> {
+                    final Object key = listener.key() != null ? listener.key().apply(t)
+                        : channelHandlerContext != null ? channelHandlerContext.channel() : listener;
+                    this.serialExecutor.execute(key, () -> listener.handle(channelHandlerContext, t));
+                }
+            }
+        }
     }
 
     public int getPacketId(final Class<? extends Packet> clazz) {
-        return this.packets.indexOf(clazz);
+        final var id = this.packetIds.get(clazz);
+        return id == null ? -1 : id;
     }
 
     public Class<? extends Packet> getPacketClass(final int id) {
-        return this.packets.get(id);
+        return this.packetClasses[id];
+    }
+
+    /**
+     * creates an empty packet through the constructor handle registered for the id
+     * @param id the id of the packet
+     * @return the new packet or null when no packet is registered with the id
+     */
+    public @Nullable Packet createPacket(final int id) {
+        if (id < 0 || id >= this.packetFactories.length) return null;
+        return this.packetFactories[id].get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Supplier<? extends Packet> createFactory(final Class<? extends Packet> clazz) {
+        try {
+            final var lookup = MethodHandles.lookup();
+            final var constructor = lookup.findConstructor(clazz, MethodType.methodType(void.class));
+            return (Supplier<? extends Packet>) LambdaMetafactory.metafactory(lookup, "get",
+                    MethodType.methodType(Supplier.class), MethodType.methodType(Object.class), constructor, MethodType.methodType(clazz))
+                .getTarget()
+                .invokeExact();
+        } catch (Throwable throwable) {
+            throw new IllegalArgumentException("Packet " + clazz.getName() + " needs a public no-args constructor", throwable);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private record RegisteredListener(PacketListener packetListener, ExecutionMode executionMode, @Nullable Function key) {
+
+        @SuppressWarnings("unchecked")
+        private void handle(final ChannelHandlerContext channelHandlerContext, final Packet packet) {
+            // nothing above catches it off the event loop
+            try {
+                this.packetListener.handle(channelHandlerContext, packet);
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+
     }
 
 }
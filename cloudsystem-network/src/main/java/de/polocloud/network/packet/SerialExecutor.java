@@ -0,0 +1,51 @@
+package de.polocloud.network.packet;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * runs the tasks of one key one after another on a shared executor, different keys run in parallel
+ */
+final class SerialExecutor {
+
+    private final Executor executor;
+    // the head of a queue is the running task, a key without queue is idle
+    private final Map<Object, Deque<Runnable>> queues;
+
+    SerialExecutor(final Executor executor) {
+        this.executor = executor;
+        this.queues = new ConcurrentHashMap<>();
+    }
+
+    void execute(final Object key, final Runnable task) {
+        final var idle = new boolean[1];
+        this.queues.compute(key, (ignored, tasks) -> {
+            if (tasks == null) {
+                tasks = new ArrayDeque<>();
+                idle[0] = true;
+            }
+            tasks.add(task);
+            return tasks;
+        });
+        if (idle[0]) this.executor.execute(() -> this.runNext(key, task));
+    }
+
+    private void runNext(final Object key, final Runnable task) {
+        try {
+            task.run();
+        } finally {
+            final var next = new Runnable[1];
+            this.queues.computeIfPresent(key, (ignored, tasks) -> {
+                tasks.poll();
+                next[0] = tasks.peek();
+                return tasks.isEmpty() ? null : tasks;
+            });
+            // submitted again instead of looping, so a busy key does not hold on to the thread
+            if (next[0] != null) this.executor.execute(() -> this.runNext(key, next[0]));
+        }
+    }
+
+}
@@ -0,0 +1,139 @@
+package de.polocloud.network.packet;
+
+import io.netty.handler.codec.DecoderException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * per connection table of identifiers (service, group and node names, states), a known
+ * identifier is sent as a reference, new ones are defined incrementally by the sender
+ * once the table is full the least recently sent identifier is replaced, so new names keep getting references
+ * the encoder and decoder of a channel only access it from the event loop
+ */
+public final class StringDictionary {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    // identifier tags, a reference is written as the id + REFERENCE
+    static final int LITERAL = 0;
+    static final int DEFINE = 1;
+    // followed by the id of the evicted identifier and the new one
+    static final int REPLACE = 2;
+    static final int REFERENCE = 3;
+
+    // in access order, the first entry is the least recently sent identifier
+    private final LinkedHashMap<String, Integer> outboundIds;
+    private final List<String> outboundStrings;
+    private final List<String> inboundStrings;
+    private final int inboundCapacity;
+    // the changes of the packet which is currently encoded, undone if it could not be encoded
+    private final List<Change> changes;
+
+    // stays 0 until the other side has announced its capacity in the handshake
+    private volatile int outboundCapacity;
+
+    public StringDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public StringDictionary(final int inboundCapacity) {
+        this.outboundIds = new LinkedHashMap<>(16, 0.75f, true);
+        this.outboundStrings = new ArrayList<>();
+        this.inboundStrings = new ArrayList<>();
+        this.inboundCapacity = inboundCapacity;
+        this.changes = new ArrayList<>();
+    }
+
+    /**
+     * gets the amount of identifiers this side accepts, announced in the handshake
+     */
+    public int getInboundCapacity() {
+        return this.inboundCapacity;
+    }
+
+    /**
+     * sets the amount of identifiers the other side accepts, 0 disables the references
+     * @param outboundCapacity the capacity announced by the other side
+     */
+    public void setOutboundCapacity(final int outboundCapacity) {
+        this.outboundCapacity = outboundCapacity;
+    }
+
+    void write(final NetworkBuf networkBuf, final String string) {
+        final var id = this.outboundIds.get(string);
+        if (id != null) {
+            networkBuf.writeVarInt(id + REFERENCE);
+            return;
+        }
+        if (this.outboundStrings.size() < this.outboundCapacity) {
+            this.outboundIds.put(string, this.outboundStrings.size());
+            this.outboundStrings.add(string);
+            this.changes.add(new Change(this.outboundStrings.size() - 1, null));
+            networkBuf.writeVarInt(DEFINE);
+        } else if (this.outboundCapacity > 0) {
+            // the other side replaces the same slot when it reads the tag
+            final var eldest = this.outboundIds.entrySet().iterator().next();
+            final int evictedId = eldest.getValue();
+            this.outboundIds.remove(eldest.getKey());
+            this.outboundIds.put(string, evictedId);
+            this.outboundStrings.set(evictedId, string);
+            this.changes.add(new Change(evictedId, eldest.getKey()));
+            networkBuf.writeVarInt(REPLACE);
+            networkBuf.writeVarInt(evictedId);
+        } else {
+            networkBuf.writeVarInt(LITERAL);
+        }
+        networkBuf.writeString(string);
+    }
+
+    String read(final NetworkBuf networkBuf) {
+        final var tag = networkBuf.readVarInt();
+        if (tag >= REFERENCE) {
+            final var id = tag - REFERENCE;
+            if (id >= this.inboundStrings.size()) throw new DecoderException("Unknown identifier reference " + id);
+            return this.inboundStrings.get(id);
+        }
+        final var id = tag == REPLACE ? networkBuf.readVarInt() : -1;
+        final var string = networkBuf.readString();
+        if (tag == DEFINE) {
+            if (this.inboundStrings.size() >= this.inboundCapacity) {
+                throw new DecoderException("Identifier dictionary exceeds the capacity of " + this.inboundCapacity);
+            }
+            this.inboundStrings.add(string);
+        } else if (tag == REPLACE) {
+            if (id >= this.inboundStrings.size()) throw new DecoderException("Unknown identifier replacement " + id);
+            this.inboundStrings.set(id, string);
+        }
+        return string;
+    }
+
+    /**
+     * starts recording the outbound changes of a packet, called before it is encoded
+     */
+    public void mark() {
+        this.changes.clear();
+    }
+
+    /**
+     * undoes every outbound change since the mark, the other side never received them
+     */
+    public void rollback() {
+        for (var i = this.changes.size() - 1; i >= 0; i--) {
+            final var change = this.changes.get(i);
+            this.outboundIds.remove(this.outboundStrings.get(change.id()));
+            if (change.previous() == null) {
+                this.outboundStrings.remove(change.id());
+            } else {
+                this.outboundStrings.set(change.id(), change.previous());
+                this.outboundIds.put(change.previous(), change.id());
+            }
+        }
+        this.changes.clear();
+    }
+
+    private record Change(int id, String previous) {
+    }
+
+}
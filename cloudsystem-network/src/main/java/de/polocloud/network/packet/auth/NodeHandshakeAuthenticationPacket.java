@@ -9,26 +9,30 @@ public final class NodeHandshakeAuthenticationPacket implements Packet {
 
     private String name;
     private NetworkType type;
+    private int dictionaryCapacity;
 
     public NodeHandshakeAuthenticationPacket() {
     }
 
-    public NodeHandshakeAuthenticationPacket(final String name, final NetworkType type) {
+    public NodeHandshakeAuthenticationPacket(final String name, final NetworkType type, final int dictionaryCapacity) {
         this.name = name;
         this.type = type;
+        this.dictionaryCapacity = dictionaryCapacity;
     }
 
     @Override
     public void read(@NotNull NetworkBuf byteBuf) {
         this.type = byteBuf.readEnum();
         this.name = byteBuf.readString();
+        this.dictionaryCapacity = byteBuf.readVarInt();
     }
 
     @Override
     public void write(@NotNull NetworkBuf byteBuf) {
         byteBuf
             .writeEnum(this.type)
-            .writeString(this.name);
+            .writeString(this.name)
+            .writeVarInt(this.dictionaryCapacity);
     }
 
     public String getName() {
@@ -39,4 +43,11 @@ public final class NodeHandshakeAuthenticationPacket implements Packet {
         return this.type;
     }
 
+    /**
+     * gets the amount of identifiers the sender accepts in its string dictionary
+     */
+    public int getDictionaryCapacity() {
+        return this.dictionaryCapacity;
+    }
+
 }
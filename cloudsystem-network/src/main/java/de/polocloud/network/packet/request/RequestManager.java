@@ -0,0 +1,123 @@
+package de.polocloud.network.packet.request;
+
+import de.polocloud.network.packet.Packet;
+import io.netty.channel.Channel;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.Timer;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.channels.ClosedChannelException;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * Correlates requests with their responses by a compact long id. Every request completes exactly once: with the
+ * response, with a timeout or when the channel it was sent on closes.
+ */
+public final class RequestManager {
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 5000L;
+    public static final int DEFAULT_MAX_PENDING_REQUESTS = 1024;
+
+    private static final Timer TIMER = new HashedWheelTimer(
+        new DefaultThreadFactory("PoloCloud-Request-Timer", true), 100, TimeUnit.MILLISECONDS);
+
+    private final AtomicLong requestIds = new AtomicLong();
+    private final Map<Long, PendingRequest> pendingRequests = new ConcurrentHashMap<>();
+    private final Semaphore permits;
+    private final long timeoutMillis;
+
+    public RequestManager() {
+        this(DEFAULT_TIMEOUT_MILLIS, DEFAULT_MAX_PENDING_REQUESTS);
+    }
+
+    public RequestManager(final long timeoutMillis, final int maxPendingRequests) {
+        this.timeoutMillis = timeoutMillis;
+        this.permits = new Semaphore(maxPendingRequests);
+    }
+
+    /**
+     * sends a request and waits for the response with the same id
+     * @param channel the channel to send the request on
+     * @param requestFactory creates the packet which carries the given request id
+     * @return a future which completes with the response packet
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Packet> @NotNull CompletableFuture<T> request(final @NotNull Channel channel, final @NotNull LongFunction<Packet> requestFactory) {
+        if (!this.permits.tryAcquire()) {
+            return CompletableFuture.failedFuture(new RejectedExecutionException("Too many pending requests"));
+        }
+
+        final var id = this.requestIds.incrementAndGet();
+        final var future = new CompletableFuture<Packet>();
+        final var pendingRequest = new PendingRequest(channel, future);
+        this.pendingRequests.put(id, pendingRequest);
+
+        pendingRequest.timeout = TIMER.newTimeout(timeout ->
+            this.fail(id, new TimeoutException("Request " + id + " timed out")), this.timeoutMillis, TimeUnit.MILLISECONDS);
+
+        channel.writeAndFlush(requestFactory.apply(id)).addListener(writeFuture -> {
+            if (!writeFuture.isSuccess()) this.fail(id, writeFuture.cause());
+        });
+        return (CompletableFuture<T>) future;
+    }
+
+    /**
+     * completes a pending request
+     * @param id the id of the request
+     * @param response the response packet
+     * @return false if the request is unknown, already timed out or answered
+     */
+    public boolean complete(final long id, final @NotNull Packet response) {
+        final var pendingRequest = this.remove(id);
+        if (pendingRequest == null) return false;
+        pendingRequest.future.complete(response);
+        return true;
+    }
+
+    /**
+     * fails all pending requests of a closed channel
+     * @param channel the closed channel
+     */
+    public void cancel(final @NotNull Channel channel) {
+        this.pendingRequests.forEach((id, pendingRequest) -> {
+            if (pendingRequest.channel == channel) this.fail(id, new ClosedChannelException());
+        });
+    }
+
+    public int getPendingRequests() {
+        return this.pendingRequests.size();
+    }
+
+    private void fail(final long id, final Throwable cause) {
+        final var pendingRequest = this.remove(id);
+        if (pendingRequest != null) pendingRequest.future.completeExceptionally(cause);
+    }
+
+    private PendingRequest remove(final long id) {
+        final var pendingRequest = this.pendingRequests.remove(id);
+        if (pendingRequest == null) return null;
+        this.permits.release();
+        final var timeout = pendingRequest.timeout;
+        if (timeout != null) timeout.cancel();
+        return pendingRequest;
+    }
+
+    private static final class PendingRequest {
+
+        private final Channel channel;
+        private final CompletableFuture<Packet> future;
+        private volatile Timeout timeout;
+
+        private PendingRequest(final Channel channel, final CompletableFuture<Packet> future) {
+            this.channel = channel;
+            this.future = future;
+        }
+
+    }
+
+}
@@ -2,15 +2,27 @@ package de.polocloud.network.server;
 
 import de.polocloud.network.NetworkType;
 import de.polocloud.network.Node;
+import de.polocloud.network.codec.EncodedPacket;
+import de.polocloud.network.codec.PacketCompressor;
+import de.polocloud.network.handler.BackpressureHandler;
+import de.polocloud.network.handler.FlushConsolidationHandler;
 import de.polocloud.network.packet.Packet;
 import de.polocloud.network.packet.PacketHandler;
 import de.polocloud.network.server.client.ConnectedClient;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.channel.*;
+import io.netty.channel.group.ChannelGroup;
+import io.netty.channel.group.ChannelMatcher;
+import io.netty.channel.group.ChannelMatchers;
+import io.netty.channel.group.DefaultChannelGroup;
+import io.netty.util.concurrent.GlobalEventExecutor;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
@@ -18,29 +30,45 @@ import java.util.concurrent.ConcurrentHashMap;
 public abstract class NettyServer extends Node {
 
     private final Map<Channel, ConnectedClient> connectedClients;
-
-    private EventLoopGroup bossEventLoopGroup;
-    private EventLoopGroup workerEventLoopGroup;
+    private final Map<String, ConnectedClient> clientsByName;
+    private final Map<NetworkType, Map<Channel, ConnectedClient>> clientsByType;
+    private final Map<NetworkType, Collection<ConnectedClient>> clientViewsByType;
+    private final Collection<ConnectedClient> clientView;
+    private final ChannelGroup channels;
+    private final Map<NetworkType, ChannelGroup> channelsByType;
 
     private ChannelFuture channelFuture;
 
     public NettyServer(final PacketHandler packetHandler, final String name, final NetworkType networkType) {
         super(packetHandler, name, networkType);
         this.connectedClients = new ConcurrentHashMap<>();
+        this.clientsByName = new ConcurrentHashMap<>();
+        this.clientsByType = new EnumMap<>(NetworkType.class);
+        this.clientViewsByType = new EnumMap<>(NetworkType.class);
+        this.clientView = Collections.unmodifiableCollection(this.connectedClients.values());
+        this.channels = new DefaultChannelGroup(GlobalEventExecutor.INSTANCE);
+        this.channelsByType = new EnumMap<>(NetworkType.class);
+        for (final var type : NetworkType.values()) {
+            final var clients = new ConcurrentHashMap<Channel, ConnectedClient>();
+            this.clientsByType.put(type, clients);
+            // read only views, iterating them does not copy anything
+            this.clientViewsByType.put(type, Collections.unmodifiableCollection(clients.values()));
+            this.channelsByType.put(type, new DefaultChannelGroup(GlobalEventExecutor.INSTANCE));
+        }
     }
 
     public void connect(final @NotNull String host, final int port) {
-        this.bossEventLoopGroup = this.newEventLoopGroup(1);
-        this.workerEventLoopGroup = this.newEventLoopGroup();
+        this.retainTransport();
 
         try {
             this.channelFuture = new ServerBootstrap()
-                .channel(this.getServerSocketChannel())
-                .group(this.bossEventLoopGroup, this.workerEventLoopGroup)
+                .channel(this.transport.getServerSocketChannel())
+                .group(this.transport.getBossGroup(), this.transport.getWorkerGroup())
                 .childHandler(new NettyServerInitializer(this))
                 .childOption(ChannelOption.SO_KEEPALIVE, true)
                 .childOption(ChannelOption.TCP_NODELAY, true)
                 .childOption(ChannelOption.AUTO_READ, true)
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, this.getBackpressureSettings(NetworkType.UNKNOWN).toWaterMark())
                 .bind(host, port)
                 .addListener(ChannelFutureListener.CLOSE_ON_FAILURE)
                 .addListener(ChannelFutureListener.FIRE_EXCEPTION_ON_FAILURE)
@@ -53,15 +81,27 @@ public abstract class NettyServer extends Node {
     }
 
     public void close() {
-        this.channelFuture.cancel(true);
+        this.channelFuture.channel().close();
+        this.channels.close();
 
-        this.bossEventLoopGroup.shutdownGracefully();
-        this.workerEventLoopGroup.shutdownGracefully();
+        this.releaseTransport();
     }
 
     public void addClient(final Channel channel, final String name, final NetworkType networkType) {
         final var client = new ConnectedClient(name, channel, networkType);
-        this.connectedClients.put(channel, client);
+        final var flushConsolidationHandler = channel.pipeline().get(FlushConsolidationHandler.class);
+        if (flushConsolidationHandler != null) flushConsolidationHandler.setSettings(this.getFlushSettings(networkType));
+        final var packetCompressor = channel.pipeline().get(PacketCompressor.class);
+        if (packetCompressor != null) packetCompressor.setSettings(this.getCompressionSettings(networkType));
+        final var backpressureHandler = channel.pipeline().get(BackpressureHandler.class);
+        if (backpressureHandler != null) backpressureHandler.setSettings(this.getBackpressureSettings(networkType));
+        synchronized (this.connectedClients) {
+            this.connectedClients.put(channel, client);
+            this.clientsByName.put(this.toKey(name), client);
+            this.clientsByType.get(networkType).put(channel, client);
+        }
+        this.channels.add(channel);
+        this.channelsByType.get(networkType).add(channel);
         switch (networkType) {
             case NODE -> this.onNodeConnected(client);
             case WRAPPER -> this.onServiceConnected(client);
@@ -69,8 +109,16 @@ public abstract class NettyServer extends Node {
     }
 
     public void closeClient(final ChannelHandlerContext channelHandlerContext) {
-        final var client = this.connectedClients.remove(channelHandlerContext.channel());
-        if (client == null) return;
+        final ConnectedClient client;
+        synchronized (this.connectedClients) {
+            client = this.connectedClients.remove(channelHandlerContext.channel());
+            if (client == null) return;
+            // a reconnected client with the same name may already own the entry
+            this.clientsByName.remove(this.toKey(client.name()), client);
+            this.clientsByType.get(client.networkType()).remove(client.channel());
+        }
+        this.channels.remove(client.channel());
+        this.channelsByType.get(client.networkType()).remove(client.channel());
         switch (client.networkType()) {
             case NODE -> this.onNodeDisconnected(client);
             case WRAPPER -> this.onServiceDisconnected(client);
@@ -83,28 +131,67 @@ public abstract class NettyServer extends Node {
     }
 
     public Optional<ConnectedClient> getClient(final @NotNull String name) {
-        return this.getClients().stream().filter(connectedClient -> connectedClient.name().equalsIgnoreCase(name)).findFirst();
+        return Optional.ofNullable(this.getClientOrNull(name));
+    }
+
+    public ConnectedClient getClientOrNull(final @NotNull String name) {
+        return this.clientsByName.get(this.toKey(name));
     }
 
     public Collection<ConnectedClient> getClients() {
-        return this.connectedClients.values();
+        return this.clientView;
+    }
+
+    public Collection<ConnectedClient> getClients(final NetworkType networkType) {
+        return this.clientViewsByType.get(networkType);
     }
 
+    /**
+     * @return a copy of the connected services, getClients(NetworkType) is a view without copying
+     */
     public List<ConnectedClient> getServices() {
-        return this.getClients().stream().filter(connectedClient -> connectedClient.networkType() == NetworkType.WRAPPER).toList();
+        return List.copyOf(this.getClients(NetworkType.WRAPPER));
     }
 
+    /**
+     * @return a copy of the connected nodes, getClients(NetworkType) is a view without copying
+     */
     public List<ConnectedClient> getNodes() {
-        return this.getClients().stream().filter(connectedClient -> connectedClient.networkType() == NetworkType.NODE).toList();
+        return List.copyOf(this.getClients(NetworkType.NODE));
+    }
+
+    private String toKey(final String name) {
+        return name.toLowerCase(Locale.ROOT);
     }
 
     public void sendPacketToAll(final Packet packet) {
-        this.connectedClients.keySet().forEach(channel -> channel.writeAndFlush(packet));
+        // mixed connection types, so the settings of connections without a known type are used
+        this.broadcast(this.channels, packet, NetworkType.UNKNOWN, ChannelMatchers.all());
     }
 
     public void sendPacketToType(final Packet packet, final NetworkType networkType) {
-        this.connectedClients.values().stream().filter(connectedClient -> connectedClient.networkType() == networkType)
-            .forEach(connectedClient -> connectedClient.channel().writeAndFlush(packet));
+        this.broadcast(this.channelsByType.get(networkType), packet, networkType, ChannelMatchers.all());
+    }
+
+    public void sendPacketToType(final Packet packet, final NetworkType networkType, final Channel except) {
+        this.broadcast(this.channelsByType.get(networkType), packet, networkType, ChannelMatchers.isNot(except));
+    }
+
+    public void sendPacketToType(final Packet packet, final NetworkType networkType, final ChannelMatcher channelMatcher) {
+        this.broadcast(this.channelsByType.get(networkType), packet, networkType, channelMatcher);
+    }
+
+    private void broadcast(final ChannelGroup channelGroup, final Packet packet, final NetworkType networkType, final ChannelMatcher channelMatcher) {
+        if (channelGroup.isEmpty()) return;
+        // a large frame is encoded once, every channel gets a retained duplicate and the group releases the original
+        final var encodedPacket = EncodedPacket.encodeLarge(this.packetHandler, packet,
+            this.getCompressionSettings(networkType), this.compressionMetrics);
+        if (encodedPacket != null) {
+            channelGroup.writeAndFlush(encodedPacket, channelMatcher);
+            return;
+        }
+        // every other packet is encoded by each channel, so its identifiers are references into the dictionary of the channel
+        channelGroup.writeAndFlush(packet, channelMatcher);
     }
 
     public abstract void onNodeConnected(final ConnectedClient connectedClient);
@@ -1,5 +1,6 @@
 package de.polocloud.network.server;
 
+import de.polocloud.network.codec.PacketEncoder;
 import de.polocloud.network.packet.Packet;
 import de.polocloud.network.packet.auth.NodeHandshakeAuthenticationPacket;
 import io.netty.channel.ChannelHandlerContext;
@@ -16,6 +17,11 @@ public final class NettyServerHandler extends SimpleChannelInboundHandler<Packet
     @Override
     protected void channelRead0(ChannelHandlerContext channelHandlerContext, Packet packet) {
         if (packet instanceof NodeHandshakeAuthenticationPacket authenticationPacket) {
+            // answer with our own capacity, so both directions can use identifier references
+            final var dictionary = channelHandlerContext.pipeline().get(PacketEncoder.class).getDictionary();
+            dictionary.setOutboundCapacity(authenticationPacket.getDictionaryCapacity());
+            channelHandlerContext.writeAndFlush(new NodeHandshakeAuthenticationPacket(
+                this.nettyServer.getName(), this.nettyServer.getNetworkType(), dictionary.getInboundCapacity()));
             this.nettyServer.addClient(
                 channelHandlerContext.channel(),
                 authenticationPacket.getName(),
@@ -32,6 +38,7 @@ public final class NettyServerHandler extends SimpleChannelInboundHandler<Packet
 
     @Override
     public void channelInactive(ChannelHandlerContext ctx) {
+        this.nettyServer.getPacketHandler().getRequestManager().cancel(ctx.channel());
         this.nettyServer.closeClient(ctx);
     }
 
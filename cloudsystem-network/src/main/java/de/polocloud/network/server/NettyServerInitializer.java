@@ -1,9 +1,15 @@
 package de.polocloud.network.server;
 
+import de.polocloud.network.NetworkType;
+import de.polocloud.network.codec.PacketCompressor;
 import de.polocloud.network.codec.PacketDecoder;
+import de.polocloud.network.codec.PacketDecompressor;
 import de.polocloud.network.codec.PacketEncoder;
 import de.polocloud.network.codec.PacketLengthDeserializer;
 import de.polocloud.network.codec.PacketLengthSerializer;
+import de.polocloud.network.handler.BackpressureHandler;
+import de.polocloud.network.handler.FlushConsolidationHandler;
+import de.polocloud.network.packet.StringDictionary;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInitializer;
 import io.netty.channel.socket.SocketChannel;
@@ -18,11 +24,17 @@ public final class NettyServerInitializer extends ChannelInitializer<SocketChann
 
     @Override
     protected void initChannel(SocketChannel socketChannel) {
+        // the client type is known after the handshake, the server updates the settings then
+        final var dictionary = new StringDictionary();
         socketChannel.pipeline()
+            .addLast("flush-consolidation", new FlushConsolidationHandler(this.nettyServer.getFlushSettings(NetworkType.UNKNOWN)))
             .addLast("packet-length-deserializer", new PacketLengthDeserializer())
-            .addLast("packet-decoder", new PacketDecoder(this.nettyServer.getPacketHandler()))
+            .addLast("packet-decompressor", new PacketDecompressor())
+            .addLast("packet-decoder", new PacketDecoder(this.nettyServer.getPacketHandler(), dictionary))
             .addLast("packet-length-serializer", new PacketLengthSerializer())
-            .addLast("packet-encoder", new PacketEncoder(this.nettyServer.getPacketHandler()))
+            .addLast("packet-compressor", new PacketCompressor(this.nettyServer.getCompressionSettings(NetworkType.UNKNOWN), this.nettyServer.getCompressionMetrics()))
+            .addLast("packet-encoder", new PacketEncoder(this.nettyServer.getPacketHandler(), dictionary))
+            .addLast("backpressure", new BackpressureHandler(this.nettyServer.getBackpressureSettings(NetworkType.UNKNOWN)))
             .addLast("handler", new NettyServerHandler(this.nettyServer));
     }
 
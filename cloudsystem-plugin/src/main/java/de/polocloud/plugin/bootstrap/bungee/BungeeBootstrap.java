@@ -1,6 +1,5 @@
 package de.polocloud.plugin.bootstrap.bungee;
 
-import de.polocloud.api.CloudAPI;
 import de.polocloud.api.service.CloudService;
 import de.polocloud.api.service.ServiceState;
 import de.polocloud.plugin.bootstrap.bungee.commands.BungeeCloudCommand;
@@ -12,7 +11,6 @@ import net.md_5.bungee.api.connection.ProxiedPlayer;
 import net.md_5.bungee.api.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Comparator;
 import java.util.Optional;
 
 public final class BungeeBootstrap extends Plugin {
@@ -34,12 +32,8 @@ public final class BungeeBootstrap extends Plugin {
     }
 
     public @NotNull Optional<CloudService> getFallback(final ProxiedPlayer player) {
-        return CloudAPI.getInstance().getServiceManager().getAllCachedServices().stream()
-            .filter(service -> service.getState().equals(ServiceState.ONLINE))
-            .filter(service -> !service.getGroup().getGameServerVersion().isProxy())
-            .filter(service -> service.getGroup().isFallbackGroup())
-            .filter(service -> (player.getServer() == null || !player.getServer().getInfo().getName().equals(service.getName())))
-            .min(Comparator.comparing(CloudService::getOnlineCount));
+        return Wrapper.getInstance().getFallbackIndex()
+            .getFallback(player.getServer() == null ? null : player.getServer().getInfo().getName());
     }
 
 }
@@ -7,7 +7,6 @@ import com.velocitypowered.api.event.proxy.ProxyInitializeEvent;
 import com.velocitypowered.api.plugin.Plugin;
 import com.velocitypowered.api.proxy.Player;
 import com.velocitypowered.api.proxy.ProxyServer;
-import de.polocloud.api.CloudAPI;
 import de.polocloud.api.service.CloudService;
 import de.polocloud.api.service.ServiceState;
 import de.polocloud.plugin.bootstrap.velocity.commands.VelocityCloudCommand;
@@ -16,7 +15,6 @@ import de.polocloud.plugin.bootstrap.velocity.listener.VelocityListener;
 import de.polocloud.wrapper.Wrapper;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Comparator;
 import java.util.Optional;
 
 @SuppressWarnings("ClassCanBeRecord")
@@ -48,13 +46,8 @@ public final class VelocityBootstrap {
     }
 
     public @NotNull Optional<CloudService> getFallback(final Player player) {
-        return CloudAPI.getInstance().getServiceManager().getAllCachedServices().stream()
-            .filter(service -> service.getState().equals(ServiceState.ONLINE))
-            .filter(service -> !service.getGroup().getGameServerVersion().isProxy())
-            .filter(service -> service.getGroup().isFallbackGroup())
-            .filter(service -> (player.getCurrentServer().isEmpty()
-                || !player.getCurrentServer().get().getServerInfo().getName().equals(service.getName())))
-            .min(Comparator.comparing(CloudService::getOnlineCount));
+        return Wrapper.getInstance().getFallbackIndex()
+            .getFallback(player.getCurrentServer().map(server -> server.getServerInfo().getName()).orElse(null));
     }
 
 }
@@ -6,7 +6,6 @@ import de.polocloud.api.groups.GroupManager;
 import de.polocloud.api.json.Document;
 import de.polocloud.api.logger.Logger;
 import de.polocloud.api.network.packet.ResponsePacket;
-import de.polocloud.api.network.packet.init.CacheInitPacket;
 import de.polocloud.api.network.packet.service.ServiceMemoryRequest;
 import de.polocloud.api.player.PlayerManager;
 import de.polocloud.api.service.CloudService;
@@ -16,6 +15,7 @@ import de.polocloud.wrapper.loader.ApplicationExternalClassLoader;
 import de.polocloud.wrapper.logger.WrapperLogger;
 import de.polocloud.wrapper.network.WrapperClient;
 import de.polocloud.wrapper.player.CloudPlayerManager;
+import de.polocloud.wrapper.service.FallbackIndex;
 import de.polocloud.wrapper.service.WrapperServiceManager;
 import org.jetbrains.annotations.NotNull;
 
@@ -27,7 +27,6 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
 import java.util.jar.JarInputStream;
@@ -44,9 +43,6 @@ public final class Wrapper extends CloudAPI {
         try {
             final var wrapper = new Wrapper();
 
-            var cacheInitialized = new AtomicBoolean(false);
-            wrapper.getPacketHandler().registerPacketListener(CacheInitPacket.class, (channelHandlerContext, packet) -> cacheInitialized.set(true));
-
             final var arguments = new ArrayList<>(Arrays.asList(args));
             final var main = arguments.remove(0);
             final var applicationFile = Paths.get(arguments.remove(0));
@@ -80,12 +76,8 @@ public final class Wrapper extends CloudAPI {
                 }
             }, "PoloCloud-Service-Thread");
             thread.setContextClassLoader(classLoader);
-            if (cacheInitialized.get()) {
-                thread.start();
-            } else {
-                wrapper.getPacketHandler().registerPacketListener(CacheInitPacket.class,
-                    (channelHandlerContext, packet) -> thread.start());
-            }
+            // the players of the snapshot may still be applied while the service starts
+            wrapper.getClient().getCacheReady().thenRun(thread::start);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -97,6 +89,7 @@ public final class Wrapper extends CloudAPI {
     private final ServiceManager serviceManager;
     private final PlayerManager playerManager;
     private final WrapperClient client;
+    private final FallbackIndex fallbackIndex;
 
     public Wrapper() {
         super(CloudAPIType.SERVICE);
@@ -109,6 +102,7 @@ public final class Wrapper extends CloudAPI {
         this.groupManager = new WrapperGroupManager();
         this.serviceManager = new WrapperServiceManager(property);
         this.playerManager = new CloudPlayerManager();
+        this.fallbackIndex = new FallbackIndex();
         this.client = new WrapperClient(this.packetHandler, property.getService(), property.getHostname(), property.getPort());
 
         Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "PoloCloud-Shutdown-Thread"));
@@ -157,6 +151,13 @@ public final class Wrapper extends CloudAPI {
         return this.client;
     }
 
+    /**
+     * @return the fallback services, used by the proxies
+     */
+    public FallbackIndex getFallbackIndex() {
+        return this.fallbackIndex;
+    }
+
     private long calcMemory(final long memory) {
         return memory / 1024 / 1024;
     }
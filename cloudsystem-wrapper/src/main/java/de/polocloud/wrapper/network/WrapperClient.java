@@ -1,15 +1,69 @@
 package de.polocloud.wrapper.network;
 
 import de.polocloud.api.CloudAPI;
+import de.polocloud.api.network.packet.init.CacheDeltaPacket;
+import de.polocloud.api.network.packet.init.CacheInitPacket;
+import de.polocloud.api.network.packet.init.CacheSyncRequestPacket;
 import de.polocloud.network.NetworkType;
+import de.polocloud.network.Transport;
+import de.polocloud.network.TransportType;
 import de.polocloud.network.client.NettyClient;
 import de.polocloud.network.packet.PacketHandler;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.util.concurrent.DefaultThreadFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 public final class WrapperClient extends NettyClient {
 
+    // the cache state which was applied last, -1 until the first snapshot arrived
+    private volatile long cacheEpoch;
+    private volatile long cacheSequence = -1;
+    private volatile boolean synchronizing;
+
+    // applies snapshots and deltas in the received order without blocking the event loop
+    private final ExecutorService cacheExecutor;
+    // completed once the groups and services of the first snapshot are applied
+    private final CompletableFuture<Void> cacheReady;
+    // the entries of the snapshot stage which is received, only used by the cache executor
+    private final List<Object> stagedCache = new ArrayList<>();
+
     public WrapperClient(final PacketHandler packetHandler, final String name, final String hostname, final int port) {
         super(packetHandler, name, NetworkType.WRAPPER);
+        // a service only holds the connection to its node, one event loop is enough
+        this.setTransport(new Transport(TransportType.AUTO, 1, 1));
+
+        this.cacheExecutor = Executors.newSingleThreadExecutor(new DefaultThreadFactory("PoloCloud-Cache", true));
+        this.cacheReady = new CompletableFuture<>();
+
+        packetHandler.registerPacketListener(CacheInitPacket.class, (channelHandlerContext, packet) -> {
+            if (packet.isLast() && packet.getStage() == CacheInitPacket.Stage.PLAYERS) {
+                // the deltas after the snapshot are queued behind its chunks
+                this.cacheEpoch = packet.getEpoch();
+                this.cacheSequence = packet.getSequence();
+                this.synchronizing = false;
+            }
+            this.cacheExecutor.execute(() -> {
+                packet.apply(this.stagedCache);
+                if (packet.isLast() && packet.getStage() == CacheInitPacket.Stage.SERVICES) this.cacheReady.complete(null);
+            });
+        });
+
+        packetHandler.registerPacketListener(CacheDeltaPacket.class, (channelHandlerContext, packet) -> {
+            // already contained in the snapshot or applied before
+            if (packet.getSequence() <= this.cacheSequence) return;
+            if (packet.getSequence() != this.cacheSequence + 1) {
+                this.requestSynchronization(channelHandlerContext);
+                return;
+            }
+            this.cacheSequence = packet.getSequence();
+            this.synchronizing = false;
+            if (packet.getPacket() != null) this.cacheExecutor.execute(() -> packetHandler.call(channelHandlerContext, packet.getPacket()));
+        });
 
         this.connect(hostname, port);
         CloudAPI.getInstance().getLogger().log("§7The service started successfully network service.");
@@ -20,9 +74,35 @@ public final class WrapperClient extends NettyClient {
         CloudAPI.getInstance().getLogger().log("This service successfully connected to the cluster.");
     }
 
+    @Override
+    public void onAuthenticated(ChannelHandlerContext channelHandlerContext) {
+        this.synchronizing = false;
+        this.requestSynchronization(channelHandlerContext);
+    }
+
+    @Override
+    public void close() {
+        super.close();
+        this.cacheExecutor.shutdown();
+    }
+
+    /**
+     * gets a future which is completed once the groups and services are cached, the players may still follow
+     */
+    public CompletableFuture<Void> getCacheReady() {
+        return this.cacheReady;
+    }
+
     @Override
     public void onClose(ChannelHandlerContext channelHandlerContext) {
-        CloudAPI.getInstance().getLogger().log("This service disconnected from the cluster");
+        CloudAPI.getInstance().getLogger().log("This service disconnected from the cluster, reconnecting.");
+    }
+
+    private void requestSynchronization(final ChannelHandlerContext channelHandlerContext) {
+        // the node answers with the missing changes or a snapshot, gaps until then are dropped
+        if (this.synchronizing) return;
+        this.synchronizing = true;
+        channelHandlerContext.writeAndFlush(new CacheSyncRequestPacket(this.cacheEpoch, this.cacheSequence));
     }
 
 }
@@ -10,19 +10,19 @@ import de.polocloud.api.player.impl.AbstractPlayerManager;
 import de.polocloud.wrapper.Wrapper;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.List;
+import java.util.Collection;
 import java.util.UUID;
 
 public final class CloudPlayerManager extends AbstractPlayerManager {
 
     @Override
-    public @NotNull List<CloudPlayer> getAllServicePlayers() {
-        return this.getPlayers().stream().filter(it -> it.getServer().getName().equals(Wrapper.getInstance().thisService().getName())).toList();
+    public @NotNull Collection<CloudPlayer> getAllServicePlayers() {
+        return this.players.getByService(Wrapper.getInstance().thisService().getName());
     }
 
     @Override
     public void registerCloudPlayer(@NotNull CloudPlayer cloudPlayer) {
-        this.players.put(cloudPlayer.getUniqueId(), cloudPlayer);
+        this.addPlayer(cloudPlayer);
         Wrapper.getInstance().getEventHandler().call(new CloudPlayerLoginEvent(cloudPlayer));
         Wrapper.getInstance().getClient().sendPacket(new QueryPacket(new CloudPlayerLoginPacket(cloudPlayer.getUsername(),
             cloudPlayer.getUniqueId(), cloudPlayer.getProxyServer().getName()), QueryPacket.QueryState.FIRST_RESPONSE));
@@ -30,7 +30,7 @@ public final class CloudPlayerManager extends AbstractPlayerManager {
 
     @Override
     public void unregisterCloudPlayer(@NotNull UUID uuid) {
-        Wrapper.getInstance().getEventHandler().call(new CloudPlayerDisconnectEvent(this.players.remove(uuid)));
+        Wrapper.getInstance().getEventHandler().call(new CloudPlayerDisconnectEvent(this.removePlayer(uuid)));
         Wrapper.getInstance().getClient().sendPacket(new QueryPacket(new CloudPlayerDisconnectPacket(uuid), QueryPacket.QueryState.FIRST_RESPONSE));
     }
 
@@ -0,0 +1,80 @@
+package de.polocloud.wrapper.service;
+
+import de.polocloud.api.CloudAPI;
+import de.polocloud.api.event.group.CloudServiceGroupUpdateEvent;
+import de.polocloud.api.service.CloudService;
+import de.polocloud.api.service.ServiceState;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * the online services of fallback groups, the proxies send joining and kicked players to one of them
+ * the list is filtered once per change of the online services instead of on every login
+ */
+public final class FallbackIndex {
+
+    private volatile FallbackStrategy strategy;
+    // increased by every group update, candidates computed before it are never stored
+    private final AtomicLong generation;
+    private final AtomicReference<Candidates> candidates;
+
+    public FallbackIndex() {
+        this.strategy = FallbackStrategy.LEAST_CONNECTIONS;
+        this.generation = new AtomicLong();
+        this.candidates = new AtomicReference<>(new Candidates(0, List.of(), List.of()));
+
+        // the fallback flag of a group may change without any service changing its state
+        CloudAPI.getInstance().getEventHandler().registerEvent(CloudServiceGroupUpdateEvent.class, event ->
+            this.candidates.set(new Candidates(this.generation.incrementAndGet(), List.of(), List.of())));
+    }
+
+    /**
+     * @param currentServer the name of the server the player is on, it is never selected
+     * @return the service the player should be sent to
+     */
+    public @NotNull Optional<CloudService> getFallback(final @Nullable String currentServer) {
+        var services = this.getCandidates();
+        if (currentServer != null && services.stream().anyMatch(service -> service.getName().equals(currentServer))) {
+            services = services.stream().filter(service -> !service.getName().equals(currentServer)).toList();
+        }
+        if (services.isEmpty()) return Optional.empty();
+        return Optional.ofNullable(this.strategy.select(services));
+    }
+
+    /**
+     * @return all online services of fallback groups
+     */
+    public @NotNull List<CloudService> getCandidates() {
+        // the registry shares the same list until a service changes its state, so the filtered copy is reused until then
+        final var generation = this.generation.get();
+        final var onlineServices = CloudAPI.getInstance().getServiceManager().getAllServicesByState(ServiceState.ONLINE);
+        final var candidates = this.candidates.get();
+        if (candidates.generation() == generation && candidates.onlineServices() == onlineServices) return candidates.fallbackServices();
+
+        final var fallbackServices = new ArrayList<CloudService>();
+        for (final var service : onlineServices) {
+            if (!service.getGroup().getGameServerVersion().isProxy() && service.getGroup().isFallbackGroup()) fallbackServices.add(service);
+        }
+        final var result = List.copyOf(fallbackServices);
+        // fails if a group update reset the candidates meanwhile, the result may be based on the old group
+        this.candidates.compareAndSet(candidates, new Candidates(generation, onlineServices, result));
+        return result;
+    }
+
+    public @NotNull FallbackStrategy getStrategy() {
+        return this.strategy;
+    }
+
+    public void setStrategy(final @NotNull FallbackStrategy strategy) {
+        this.strategy = strategy;
+    }
+
+    private record Candidates(long generation, List<CloudService> onlineServices, List<CloudService> fallbackServices) {}
+
+}
@@ -0,0 +1,66 @@
+package de.polocloud.wrapper.service;
+
+import de.polocloud.api.service.CloudService;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * picks the fallback service a player is sent to
+ */
+@FunctionalInterface
+public interface FallbackStrategy {
+
+    /**
+     * the service with the fewest players
+     */
+    FallbackStrategy LEAST_CONNECTIONS = services -> {
+        CloudService selected = null;
+        var selectedCount = Integer.MAX_VALUE;
+        for (final var service : services) {
+            final var count = service.getOnlineCount();
+            if (count < selectedCount) {
+                selected = service;
+                selectedCount = count;
+            }
+        }
+        return selected;
+    };
+
+    /**
+     * the emptier one of two random services, spreads a burst of logins instead of sending all to the same service
+     */
+    FallbackStrategy POWER_OF_TWO_CHOICES = services -> {
+        if (services.size() <= 2) return LEAST_CONNECTIONS.select(services);
+        final var random = ThreadLocalRandom.current();
+        final var first = services.get(random.nextInt(services.size()));
+        var second = services.get(random.nextInt(services.size() - 1));
+        if (second == first) second = services.get(services.size() - 1);
+        return second.getOnlineCount() < first.getOnlineCount() ? second : first;
+    };
+
+    /**
+     * the service with the lowest share of its max players in use, larger services get more players
+     */
+    FallbackStrategy WEIGHTED = services -> {
+        CloudService selected = null;
+        var selectedLoad = Double.MAX_VALUE;
+        for (final var service : services) {
+            final var load = service.getOnlineCount() / (double) Math.max(1, service.getMaxPlayers());
+            if (load < selectedLoad) {
+                selected = service;
+                selectedLoad = load;
+            }
+        }
+        return selected;
+    };
+
+    /**
+     * @param services the online fallback services, never empty
+     * @return the selected service
+     */
+    @Nullable CloudService select(@NotNull List<CloudService> services);
+
+}
@@ -9,6 +9,7 @@ import de.polocloud.api.network.packet.service.ServiceRequestShutdownPacket;
 import de.polocloud.api.network.packet.service.ServiceUpdatePacket;
 import de.polocloud.api.service.CloudService;
 import de.polocloud.api.service.ServiceManager;
+import de.polocloud.api.service.ServiceRegistry;
 import de.polocloud.network.packet.Packet;
 import de.polocloud.wrapper.PropertyFile;
 import de.polocloud.wrapper.Wrapper;
@@ -18,13 +19,14 @@ import java.util.List;
 
 public final class WrapperServiceManager implements ServiceManager {
 
-    private List<CloudService> allCachedServices;
+    private final ServiceRegistry serviceRegistry;
     private final PropertyFile property;
 
     private CloudService thisService;
 
     public WrapperServiceManager(final PropertyFile property) {
         this.property = property;
+        this.serviceRegistry = new ServiceRegistry();
 
         final var networkHandler = Wrapper.getInstance().getPacketHandler();
 
@@ -36,21 +38,23 @@ public final class WrapperServiceManager implements ServiceManager {
                 Wrapper.getInstance().getEventHandler().call(new CloudServiceUpdateEvent(service));
             }));
 
-        networkHandler.registerPacketListener(ServiceRemovePacket.class, (channelHandlerContext, packet) -> this.allCachedServices.remove(getServiceByNameOrNull(packet.getService())));
-        networkHandler.registerPacketListener(ServiceAddPacket.class, (channelHandlerContext, packet) -> this.allCachedServices.add(packet.getService()));
+        networkHandler.registerPacketListener(ServiceRemovePacket.class, (channelHandlerContext, packet) -> this.serviceRegistry.remove(getServiceByNameOrNull(packet.getService())));
+        networkHandler.registerPacketListener(ServiceAddPacket.class, (channelHandlerContext, packet) -> {
+            // a snapshot may already contain the service, the registry keeps the cached one
+            this.serviceRegistry.add(packet.getService());
+        });
     }
 
     @NotNull
     @Override
-    public List<CloudService> getAllCachedServices() {
-        return this.allCachedServices;
+    public ServiceRegistry getServiceRegistry() {
+        return this.serviceRegistry;
     }
 
     @Override
     public void setAllCachedServices(@NotNull List<CloudService> allCachedServices) {
-        this.allCachedServices = allCachedServices;
-        this.thisService = this.allCachedServices.stream()
-            .filter(cloudService -> cloudService.getName().equalsIgnoreCase(this.property.getService())).findAny().orElse(null);
+        this.serviceRegistry.replace(allCachedServices);
+        this.thisService = this.serviceRegistry.get(this.property.getService());
     }
 
     @Override
@@ -59,6 +63,8 @@ public final class WrapperServiceManager implements ServiceManager {
     }
 
     public CloudService thisService() {
+        // the snapshot is applied in chunks, the own service may not have been part of the first one
+        if (this.thisService == null) this.thisService = this.getServiceByNameOrNull(this.property.getService());
         return this.thisService;
     }
 